@@ -1,17 +1,22 @@
 package com.predictifylabs.backend.application.ports.input;
 
+import com.predictifylabs.backend.application.ports.output.AiPrompt;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
 /**
  * Input port that defines the AI service use cases.
  */
 public interface AiServiceUseCase {
 
     /**
-     * Generates a description for an event based on the provided context.
+     * Generates a description for an event based on the provided details.
      *
-     * @param eventContext Event context (title, type, technology, etc.)
+     * @param command Event details (title, type, technology, etc.)
      * @return AI-generated description
      */
-    String generateEventDescription(String eventContext);
+    String generateEventDescription(EventDescriptionCommand command);
 
     /**
      * Generates free text based on a custom prompt.
@@ -20,4 +25,63 @@ public interface AiServiceUseCase {
      * @return Generated text
      */
     String generateText(String prompt);
+
+    /**
+     * Streams an event description as it is generated.
+     *
+     * @param command Event details (title, type, technology, etc.)
+     * @param onChunk Receives each text fragment in order
+     * @return Completes when generation ends; cancelling it aborts the generation
+     */
+    CompletableFuture<Void> streamEventDescription(EventDescriptionCommand command, Consumer<String> onChunk);
+
+    /**
+     * Streams free text for a custom prompt as it is generated.
+     *
+     * @param prompt  The prompt to send to the AI
+     * @param onChunk Receives each text fragment in order
+     * @return Completes when generation ends; cancelling it aborts the generation
+     */
+    CompletableFuture<Void> streamText(String prompt, Consumer<String> onChunk);
+
+    /**
+     * Generates attendance insights for one or more events described in a single prompt.
+     *
+     * @param prompt The insight prompt, including the prediction context of every event
+     * @return Generated insights, in the format the prompt asks for
+     */
+    String generatePredictionInsights(AiPrompt prompt);
+
+    /**
+     * Builds the prompt of an event description without generating it.
+     *
+     * @param command Event details (title, type, technology, etc.)
+     * @return The prompt generateEventDescription would send
+     */
+    AiPrompt buildEventDescriptionPrompt(EventDescriptionCommand command);
+
+    /**
+     * Builds the prompt of a custom text without generating it.
+     *
+     * @param prompt The prompt as written by the user
+     * @return The prompt generateText would send
+     */
+    AiPrompt buildTextPrompt(String prompt);
+
+    /**
+     * Key identifying a prompt's response; prompts with the same key get interchangeable responses.
+     *
+     * @param prompt A built prompt
+     * @return The response cache key
+     */
+    String cacheKey(AiPrompt prompt);
+
+    /**
+     * Generates text for a built prompt, through the response cache, without any fallback text.
+     *
+     * @param prompt A built prompt
+     * @return Generated text
+     * @throws com.predictifylabs.backend.application.ports.output.AiUnavailableException if no text could be generated
+     */
+    String generate(AiPrompt prompt);
 }
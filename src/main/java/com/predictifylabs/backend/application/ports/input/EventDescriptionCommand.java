@@ -0,0 +1,13 @@
+package com.predictifylabs.backend.application.ports.input;
+
+/**
+ * Details of an event to write a description for.
+ *
+ * @param eventTitle        Title of the event
+ * @param eventType         Workshop, Meetup, Conference, etc., or null
+ * @param technologies      Technologies covered, or null
+ * @param additionalContext Free-form context, or null
+ */
+public record EventDescriptionCommand(String eventTitle, String eventType, String technologies,
+                                      String additionalContext) {
+}
@@ -1,5 +1,8 @@
 package com.predictifylabs.backend.application.ports.output;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
 /**
  * Output port for AI text generation.
  * Defines the contract that any AI adapter must fulfill (Gemini, OpenAI, etc.)
@@ -9,8 +12,30 @@ public interface AiGeneratorPort {
     /**
      * Generates text based on a given prompt.
      *
-     * @param prompt The input text for the AI
+     * @param prompt The system instruction and input for the AI
      * @return The text generated by the AI
      */
-    String generateText(String prompt);
+    String generateText(AiPrompt prompt);
+
+    /**
+     * Streams generated text as it is produced.
+     * Adapters without native streaming deliver the whole text as a single chunk.
+     *
+     * @param prompt  The system instruction and input for the AI
+     * @param onChunk Receives each text fragment in order
+     * @return Completes when the stream ends; cancelling it aborts the generation
+     */
+    default CompletableFuture<Void> streamText(AiPrompt prompt, Consumer<String> onChunk) {
+        return CompletableFuture.runAsync(() -> onChunk.accept(generateText(prompt)));
+    }
+
+    /**
+     * Identifies the model and generation settings behind generated text.
+     * Two requests with the same prompt and signature are expected to be interchangeable.
+     *
+     * @return A stable description of model and generation config
+     */
+    default String modelSignature() {
+        return getClass().getSimpleName();
+    }
 }
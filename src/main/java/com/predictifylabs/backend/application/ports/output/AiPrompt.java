@@ -0,0 +1,22 @@
+package com.predictifylabs.backend.application.ports.output;
+
+import com.predictifylabs.backend.domain.model.AiUseCase;
+
+/**
+ * A prompt ready to send to a generator.
+ * The system instruction carries the static preamble of a use case, so it is not repeated
+ * inside the per-call content; it may be null.
+ *
+ * @param useCase           What the text is generated for, used for metrics
+ * @param systemInstruction Static instructions for the model, or null
+ * @param content           The per-call input
+ */
+public record AiPrompt(AiUseCase useCase, String systemInstruction, String content) {
+
+    /**
+     * Prompt with content only, as typed by a user
+     */
+    public static AiPrompt of(AiUseCase useCase, String content) {
+        return new AiPrompt(useCase, null, content);
+    }
+}
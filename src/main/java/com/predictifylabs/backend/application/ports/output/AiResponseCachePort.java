@@ -0,0 +1,37 @@
+package com.predictifylabs.backend.application.ports.output;
+
+import com.predictifylabs.backend.domain.model.AiUseCase;
+
+import java.util.Optional;
+
+/**
+ * Output port for caching AI responses.
+ * Keys are content hashes of the full request, so a hit is only possible for an identical request.
+ */
+public interface AiResponseCachePort {
+
+    /**
+     * Looks up a cached response.
+     *
+     * @param key Content hash of the request
+     * @return The cached text, if present and not expired
+     */
+    Optional<String> get(String key);
+
+    /**
+     * Looks up a cached response even if it has expired, for use when fresh generation is unavailable.
+     *
+     * @param key Content hash of the request
+     * @return The cached text, if still held
+     */
+    Optional<String> getStale(String key);
+
+    /**
+     * Stores a response with the TTL configured for its use case.
+     *
+     * @param key     Content hash of the request
+     * @param useCase Use case that produced the response
+     * @param text    Generated text
+     */
+    void put(String key, AiUseCase useCase, String text);
+}
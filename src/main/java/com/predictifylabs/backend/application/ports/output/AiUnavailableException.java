@@ -0,0 +1,17 @@
+package com.predictifylabs.backend.application.ports.output;
+
+/**
+ * Thrown when an AI call cannot produce an answer: it was refused without trying,
+ * e.g. because the upstream is failing or local limits are exhausted, or it failed or timed out.
+ * Callers are expected to fall back rather than report an error.
+ */
+public class AiUnavailableException extends RuntimeException {
+
+    public AiUnavailableException(String message) {
+        super(message);
+    }
+
+    public AiUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
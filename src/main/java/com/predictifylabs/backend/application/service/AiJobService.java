@@ -0,0 +1,285 @@
+package com.predictifylabs.backend.application.service;
+
+import com.predictifylabs.backend.application.ports.input.AiServiceUseCase;
+import com.predictifylabs.backend.application.ports.output.AiPrompt;
+import com.predictifylabs.backend.application.ports.output.AiUnavailableException;
+import com.predictifylabs.backend.domain.model.AiJobStatus;
+import com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.ai.AiJobDTO;
+import com.predictifylabs.backend.infrastructure.adapters.output.persistence.entity.AiJobEntity;
+import com.predictifylabs.backend.infrastructure.adapters.output.persistence.repository.AiJobRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Asynchronous AI generation.
+ * A submitted job is stored as pending and its id returned at once; the generation runs on a
+ * virtual thread once one of a fixed number of slots is free, and the result is written back to
+ * the job. Jobs whose prompt has the same cache key while one is queued or running share that
+ * generation. Finished jobs are kept until their result expires.
+ */
+@Service
+@Slf4j
+public class AiJobService {
+
+    private static final List<AiJobStatus> UNFINISHED = List.of(AiJobStatus.PENDING, AiJobStatus.RUNNING);
+
+    private final AiJobRepository jobRepository;
+    private final AiServiceUseCase aiService;
+    private final AiQuotaService aiQuotaService;
+    private final MeterRegistry meterRegistry;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore slots;
+    private final int maxQueued;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Map<String, Execution> executions = new ConcurrentHashMap<>();
+    private final Map<UUID, Execution> executionsByJob = new ConcurrentHashMap<>();
+
+    @Value("${application.ai.jobs.result-ttl:PT1H}")
+    private Duration resultTtl;
+
+    @Value("${application.ai.jobs.stale-after:PT15M}")
+    private Duration staleAfter;
+
+    public AiJobService(
+            AiJobRepository jobRepository,
+            AiServiceUseCase aiService,
+            AiQuotaService aiQuotaService,
+            MeterRegistry meterRegistry,
+            @Value("${application.ai.jobs.max-concurrent:4}") int maxConcurrent,
+            @Value("${application.ai.jobs.max-queued:100}") int maxQueued
+    ) {
+        this.jobRepository = jobRepository;
+        this.aiService = aiService;
+        this.aiQuotaService = aiQuotaService;
+        this.meterRegistry = meterRegistry;
+        this.slots = new Semaphore(maxConcurrent);
+        this.maxQueued = maxQueued;
+
+        Gauge.builder("ai.jobs.queue.depth", queued, AtomicInteger::get)
+                .description("AI generations waiting for a job slot")
+                .register(meterRegistry);
+        Gauge.builder("ai.jobs.running", slots, semaphore -> maxConcurrent - semaphore.availablePermits())
+                .description("AI generations running as jobs")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // Interrupted jobs stay unfinished and are failed by the stale-job sweep
+        executor.shutdownNow();
+    }
+
+    /**
+     * Store a pending job for the prompt and start or join its generation.
+     * Throws {@link AiUnavailableException} when the queue is full.
+     */
+    public AiJobDTO submit(UUID userId, AiPrompt prompt, AiQuotaService.Reservation reservation) {
+        String key = aiService.cacheKey(prompt);
+        var job = jobRepository.save(AiJobEntity.builder()
+                .userId(userId)
+                .useCase(prompt.useCase())
+                .cacheKey(key)
+                .build());
+        var joined = new Execution[1];
+        var joinedRunning = new boolean[1];
+
+        var execution = executions.compute(key, (ignored, existing) -> {
+            if (existing != null) {
+                // Under the list lock, so the job is either in the ids run marks or sees that it already ran
+                synchronized (existing.jobs) {
+                    existing.jobs.add(new Job(job.getId(), reservation));
+                    joinedRunning[0] = existing.running;
+                }
+                executionsByJob.put(job.getId(), existing);
+                joined[0] = existing;
+                return existing;
+            }
+            if (queued.incrementAndGet() > maxQueued) {
+                queued.decrementAndGet();
+                return null;
+            }
+            var created = new Execution(key, prompt);
+            created.jobs.add(new Job(job.getId(), reservation));
+            executionsByJob.put(job.getId(), created);
+            return created;
+        });
+
+        if (execution == null) {
+            meterRegistry.counter("ai.jobs.submitted", "outcome", "rejected").increment();
+            finish(List.of(job.getId()), AiJobStatus.FAILED, null, "AI job queue is full");
+            aiQuotaService.settle(reservation, 0);
+            throw new AiUnavailableException("AI job queue is full");
+        }
+        if (joined[0] != null) {
+            if (joinedRunning[0]) {
+                var startedAt = OffsetDateTime.now(ZoneOffset.UTC);
+                if (jobRepository.markRunning(List.of(job.getId()), startedAt,
+                        AiJobStatus.PENDING, AiJobStatus.RUNNING) > 0) {
+                    job.setStatus(AiJobStatus.RUNNING);
+                    job.setStartedAt(startedAt);
+                }
+            }
+            meterRegistry.counter("ai.jobs.submitted", "outcome", "deduplicated").increment();
+        } else {
+            meterRegistry.counter("ai.jobs.submitted", "outcome", "started").increment();
+            executor.submit(() -> run(execution));
+        }
+        return toDTO(job);
+    }
+
+    /**
+     * Job of a user, or empty if it does not exist, belongs to someone else or has expired
+     */
+    public Optional<AiJobDTO> getJob(UUID jobId, UUID userId) {
+        return jobRepository.findByIdAndUserId(jobId, userId).map(this::toDTO);
+    }
+
+    /**
+     * Call back once with the finished job. Completes immediately if the job is finished or is not
+     * running on this instance, in which case the job passed may still be unfinished.
+     */
+    public void onFinished(AiJobDTO job, Consumer<AiJobDTO> callback) {
+        var execution = executionsByJob.get(job.getId());
+        if (job.getStatus() == AiJobStatus.COMPLETED || job.getStatus() == AiJobStatus.FAILED || execution == null) {
+            callback.accept(job);
+            return;
+        }
+        execution.finished.whenComplete((finished, error) ->
+                callback.accept(jobRepository.findById(job.getId()).map(this::toDTO).orElse(job)));
+    }
+
+    /**
+     * Delete expired jobs and fail those left unfinished for too long
+     */
+    @Scheduled(fixedDelayString = "${application.ai.jobs.cleanup-interval:PT5M}")
+    public void cleanup() {
+        try {
+            var now = OffsetDateTime.now(ZoneOffset.UTC);
+            int deleted = jobRepository.deleteExpired(now);
+            int failed = jobRepository.failUnfinishedBefore(now.minus(staleAfter), UNFINISHED, AiJobStatus.FAILED,
+                    "Job did not finish in time", now, now.plus(resultTtl));
+            if (deleted > 0 || failed > 0) {
+                log.info("AI jobs cleanup: {} expired jobs deleted, {} stale jobs failed", deleted, failed);
+            }
+        } catch (Exception e) {
+            log.error("AI jobs cleanup failed", e);
+        }
+    }
+
+    private void run(Execution execution) {
+        String text = null;
+        String error = null;
+        try {
+            slots.acquire();
+            try {
+                queued.decrementAndGet();
+                jobRepository.markRunning(startRunning(execution), OffsetDateTime.now(ZoneOffset.UTC),
+                        AiJobStatus.PENDING, AiJobStatus.RUNNING);
+                text = aiService.generate(execution.prompt);
+            } finally {
+                slots.release();
+            }
+        } catch (InterruptedException e) {
+            queued.decrementAndGet();
+            Thread.currentThread().interrupt();
+            error = "Job interrupted";
+        } catch (AiUnavailableException e) {
+            // Never stored as a result: the fallback text is not a generation
+            log.warn("AI unavailable for job: {}", e.getMessage());
+            error = "AI temporarily unavailable";
+        } catch (Exception e) {
+            log.warn("AI job generation failed: {}", e.getMessage());
+            error = "Generation failed";
+        }
+
+        // Close the execution to new jobs before reading its final job list; joins happen inside compute
+        executions.remove(execution.key, execution);
+        List<Job> jobs;
+        synchronized (execution.jobs) {
+            jobs = List.copyOf(execution.jobs);
+        }
+        var ids = jobs.stream().map(Job::id).toList();
+        try {
+            finish(ids, error == null ? AiJobStatus.COMPLETED : AiJobStatus.FAILED, text, error);
+        } catch (Exception e) {
+            log.error("Could not store result of AI jobs {}", ids, e);
+        } finally {
+            int outputChars = text != null ? text.length() : 0;
+            jobs.forEach(job -> aiQuotaService.settle(job.reservation(), outputChars));
+            ids.forEach(executionsByJob::remove);
+            meterRegistry.counter("ai.jobs.completed", "outcome", error == null ? "completed" : "failed")
+                    .increment(jobs.size());
+            execution.finished.complete(null);
+        }
+    }
+
+    private void finish(List<UUID> ids, AiJobStatus status, String result, String error) {
+        var now = OffsetDateTime.now(ZoneOffset.UTC);
+        jobRepository.finish(ids, status, result, error, now, now.plus(resultTtl));
+    }
+
+    /**
+     * Ids of the jobs joined so far; jobs joining later mark themselves running
+     */
+    private static List<UUID> startRunning(Execution execution) {
+        synchronized (execution.jobs) {
+            execution.running = true;
+            return execution.jobs.stream().map(Job::id).toList();
+        }
+    }
+
+    private AiJobDTO toDTO(AiJobEntity entity) {
+        return AiJobDTO.builder()
+                .id(entity.getId())
+                .useCase(entity.getUseCase())
+                .status(entity.getStatus())
+                .result(entity.getResult())
+                .error(entity.getError())
+                .createdAt(entity.getCreatedAt())
+                .startedAt(entity.getStartedAt())
+                .completedAt(entity.getCompletedAt())
+                .expiresAt(entity.getExpiresAt())
+                .build();
+    }
+
+    private record Job(UUID id, AiQuotaService.Reservation reservation) {
+    }
+
+    private static final class Execution {
+
+        private final String key;
+        private final AiPrompt prompt;
+        private final List<Job> jobs = Collections.synchronizedList(new ArrayList<>());
+        private final CompletableFuture<Void> finished = new CompletableFuture<>();
+        // Guarded by jobs
+        private boolean running;
+
+        private Execution(String key, AiPrompt prompt) {
+            this.key = key;
+            this.prompt = prompt;
+        }
+    }
+}
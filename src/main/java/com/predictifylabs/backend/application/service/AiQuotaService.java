@@ -0,0 +1,277 @@
+package com.predictifylabs.backend.application.service;
+
+import com.predictifylabs.backend.domain.model.Role;
+import com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.ai.AiUsageDTO;
+import com.predictifylabs.backend.infrastructure.adapters.output.persistence.repository.AiUsageRepository;
+import com.predictifylabs.backend.infrastructure.config.AiQuotaProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-user and per-role AI quotas over a sliding window, counted in requests and estimated tokens.
+ * Counters live in memory behind striped locks, so users only contend when they share a stripe;
+ * per-day totals are accumulated separately and periodically added to ai_usage.
+ * A call reserves its input tokens plus a fixed output allowance up front and is settled with
+ * the real output size once the response is known.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AiQuotaService {
+
+    private static final int STRIPES = 64;
+
+    private final AiQuotaProperties properties;
+    private final AiUsageRepository usageRepository;
+    private final MeterRegistry meterRegistry;
+
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private final Map<UUID, SlidingWindowCounter> userWindows = new ConcurrentHashMap<>();
+    private final Map<Role, SlidingWindowCounter> roleWindows = new EnumMap<>(Role.class);
+    private final Map<Role, ReentrantLock> roleLocks = new EnumMap<>(Role.class);
+    private final Map<DailyKey, long[]> pendingDaily = new ConcurrentHashMap<>();
+
+    /**
+     * Outcome of a quota check. When allowed, settle the reservation after the call.
+     */
+    public record Reservation(boolean allowed, String reason, long retryAfterSeconds,
+                              UUID userId, Role role, long reservedOutputTokens) {
+    }
+
+    private record DailyKey(UUID userId, LocalDate day) {
+    }
+
+    @PostConstruct
+    void init() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        for (Role role : Role.values()) {
+            roleWindows.put(role, newWindow());
+            roleLocks.put(role, new ReentrantLock());
+        }
+    }
+
+    /**
+     * Check both quotas for a call whose input has the given length and reserve its estimated cost
+     */
+    public Reservation tryAcquire(UUID userId, Role role, int inputChars) {
+        long reservedOutput = properties.getReservedOutputTokens();
+        if (!properties.isEnabled()) {
+            return new Reservation(true, null, 0, userId, role, reservedOutput);
+        }
+        long cost = estimateTokens(inputChars) + reservedOutput;
+        long now = System.nanoTime();
+        var userLimit = properties.userLimit(role);
+        var roleLimit = properties.roleLimit(role);
+
+        ReentrantLock userLock = stripe(userId);
+        ReentrantLock roleLock = roleLocks.get(role);
+        // Always user stripe before role lock, so the two can never deadlock
+        userLock.lock();
+        try {
+            var userWindow = userWindows.computeIfAbsent(userId, id -> newWindow());
+            String reason = exceeded(userWindow, now, userLimit, cost, "user");
+            if (reason == null) {
+                roleLock.lock();
+                try {
+                    var roleWindow = roleWindows.get(role);
+                    reason = exceeded(roleWindow, now, roleLimit, cost, "role");
+                    if (reason == null) {
+                        roleWindow.add(now, 1, cost);
+                        userWindow.add(now, 1, cost);
+                    }
+                } finally {
+                    roleLock.unlock();
+                }
+            }
+            if (reason != null) {
+                meterRegistry.counter("ai.quota.requests", "role", role.name(), "outcome", reason).increment();
+                return new Reservation(false, reason, retryAfterSeconds(), userId, role, 0);
+            }
+        } finally {
+            userLock.unlock();
+        }
+
+        addDaily(userId, 1, cost);
+        meterRegistry.counter("ai.quota.requests", "role", role.name(), "outcome", "allowed").increment();
+        meterRegistry.counter("ai.quota.tokens", "role", role.name()).increment(cost);
+        return new Reservation(true, null, 0, userId, role, reservedOutput);
+    }
+
+    /**
+     * Replace the reserved output allowance with the real output size
+     */
+    public void settle(Reservation reservation, int outputChars) {
+        if (!properties.isEnabled() || !reservation.allowed()) {
+            return;
+        }
+        long delta = estimateTokens(outputChars) - reservation.reservedOutputTokens();
+        if (delta == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        ReentrantLock userLock = stripe(reservation.userId());
+        userLock.lock();
+        try {
+            userWindows.computeIfAbsent(reservation.userId(), id -> newWindow()).add(now, 0, delta);
+            ReentrantLock roleLock = roleLocks.get(reservation.role());
+            roleLock.lock();
+            try {
+                roleWindows.get(reservation.role()).add(now, 0, delta);
+            } finally {
+                roleLock.unlock();
+            }
+        } finally {
+            userLock.unlock();
+        }
+        addDaily(reservation.userId(), 0, delta);
+        meterRegistry.counter("ai.quota.tokens", "role", reservation.role().name()).increment(Math.max(0, delta));
+    }
+
+    /**
+     * Current window usage and limits of a user, plus daily totals of the last days
+     */
+    public AiUsageDTO getUsage(UUID userId, Role role, int days) {
+        long now = System.nanoTime();
+        long windowRequests;
+        long windowTokens;
+        ReentrantLock userLock = stripe(userId);
+        userLock.lock();
+        try {
+            var window = userWindows.get(userId);
+            windowRequests = window != null ? window.requests(now) : 0;
+            windowTokens = window != null ? window.tokens(now) : 0;
+        } finally {
+            userLock.unlock();
+        }
+
+        LocalDate from = LocalDate.now(ZoneOffset.UTC).minusDays(Math.max(0, days - 1));
+        Map<String, AiUsageDTO.DailyUsage> daily = new TreeMap<>();
+        for (var row : usageRepository.findByUserIdSince(userId, from)) {
+            daily.put(row.getId().getUsageDate().toString(),
+                    new AiUsageDTO.DailyUsage(row.getRequests(), row.getTokens()));
+        }
+        // Include counts not flushed yet
+        pendingDaily.forEach((key, counts) -> {
+            if (key.userId().equals(userId) && !key.day().isBefore(from)) {
+                daily.merge(key.day().toString(), new AiUsageDTO.DailyUsage(counts[0], counts[1]),
+                        (a, b) -> new AiUsageDTO.DailyUsage(a.getRequests() + b.getRequests(),
+                                a.getTokens() + b.getTokens()));
+            }
+        });
+
+        var limit = properties.userLimit(role);
+        return AiUsageDTO.builder()
+                .userId(userId)
+                .role(role)
+                .window(properties.getWindow())
+                .windowRequests(windowRequests)
+                .windowTokens(windowTokens)
+                .requestLimit(limit.getRequests())
+                .tokenLimit(limit.getTokens())
+                .daily(daily)
+                .build();
+    }
+
+    /**
+     * Add accumulated daily deltas to ai_usage and drop idle user windows
+     */
+    @Scheduled(fixedDelayString = "${application.ai.quota.flush-interval:PT1M}")
+    public void flush() {
+        int flushed = 0;
+        for (DailyKey key : pendingDaily.keySet()) {
+            long[] counts = pendingDaily.remove(key);
+            if (counts == null) {
+                continue;
+            }
+            try {
+                usageRepository.addUsage(key.userId(), key.day(), counts[0], counts[1]);
+                flushed++;
+            } catch (Exception e) {
+                // Put the counts back so they are retried on the next flush
+                pendingDaily.merge(key, counts, AiQuotaService::sum);
+                log.warn("Could not persist AI usage, will retry: {}", e.getMessage());
+                break;
+            }
+        }
+        if (flushed > 0) {
+            log.debug("Persisted AI usage for {} user-days", flushed);
+        }
+        evictIdleWindows();
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private String exceeded(SlidingWindowCounter window, long now, AiQuotaProperties.Limit limit, long cost,
+                            String scope) {
+        if (window.requests(now) + 1 > limit.getRequests()) {
+            return scope + "_requests";
+        }
+        if (window.tokens(now) + cost > limit.getTokens()) {
+            return scope + "_tokens";
+        }
+        return null;
+    }
+
+    private void addDaily(UUID userId, long requests, long tokens) {
+        pendingDaily.merge(new DailyKey(userId, LocalDate.now(ZoneOffset.UTC)), new long[]{requests, tokens},
+                AiQuotaService::sum);
+    }
+
+    private void evictIdleWindows() {
+        long now = System.nanoTime();
+        for (UUID userId : userWindows.keySet()) {
+            ReentrantLock lock = stripe(userId);
+            lock.lock();
+            try {
+                var window = userWindows.get(userId);
+                if (window != null && window.isEmpty(now)) {
+                    userWindows.remove(userId);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private long estimateTokens(int chars) {
+        return (chars + properties.getCharsPerToken() - 1) / properties.getCharsPerToken();
+    }
+
+    private long retryAfterSeconds() {
+        // One bucket is the soonest any usage can leave the window
+        return Math.max(1, properties.getWindow().dividedBy(properties.getBuckets()).toSeconds());
+    }
+
+    private SlidingWindowCounter newWindow() {
+        return new SlidingWindowCounter(properties.getWindow().toNanos(), properties.getBuckets());
+    }
+
+    private ReentrantLock stripe(UUID userId) {
+        return stripes[Math.floorMod(userId.hashCode(), STRIPES)];
+    }
+
+    private static long[] sum(long[] a, long[] b) {
+        a[0] += b[0];
+        a[1] += b[1];
+        return a;
+    }
+}
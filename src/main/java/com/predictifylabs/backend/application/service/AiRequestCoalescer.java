@@ -0,0 +1,135 @@
+package com.predictifylabs.backend.application.service;
+
+import com.predictifylabs.backend.application.ports.output.AiUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight execution of AI calls.
+ * Concurrent callers with the same key share one in-flight call: the first caller starts it
+ * on a virtual thread and later callers wait on the same result. A caller that times out or is
+ * interrupted stops waiting; the call itself is cancelled only once no caller is left waiting.
+ * Timeouts and failures are reported as {@link AiUnavailableException}, so callers fall back.
+ */
+@Component
+@Slf4j
+public class AiRequestCoalescer {
+
+    private final Map<String, Flight> inFlight = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Counter leaders;
+    private final Counter followers;
+    private final Counter timeouts;
+
+    @Value("${application.ai.coalescing.timeout:PT30S}")
+    private Duration timeout;
+
+    public AiRequestCoalescer(MeterRegistry meterRegistry) {
+        this.leaders = meterRegistry.counter("ai.coalescing.requests", "role", "leader");
+        this.followers = meterRegistry.counter("ai.coalescing.requests", "role", "follower");
+        this.timeouts = meterRegistry.counter("ai.coalescing.timeouts");
+        Gauge.builder("ai.coalescing.in_flight", inFlight, Map::size)
+                .description("Distinct AI calls currently in flight")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Run the call for a key, or join the call already running for it
+     */
+    public String execute(String key, Supplier<String> call) {
+        var created = new Flight();
+        var existing = inFlight.putIfAbsent(key, created);
+
+        if (existing == null) {
+            leaders.increment();
+            created.task = executor.submit(() -> {
+                try {
+                    created.result.complete(call.get());
+                } catch (Throwable e) {
+                    created.result.completeExceptionally(e);
+                } finally {
+                    inFlight.remove(key, created);
+                }
+            });
+            return await(key, created);
+        }
+        if (!existing.join()) {
+            // The flight was abandoned between lookup and join; start a fresh one
+            inFlight.remove(key, existing);
+            return execute(key, call);
+        }
+        followers.increment();
+        return await(key, existing);
+    }
+
+    private String await(String key, Flight flight) {
+        try {
+            return flight.result.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            flight.leave(key);
+            throw new AiUnavailableException("AI request timed out after " + timeout.toSeconds() + "s", e);
+        } catch (InterruptedException e) {
+            flight.leave(key);
+            Thread.currentThread().interrupt();
+            throw new AiUnavailableException("AI request interrupted", e);
+        } catch (CancellationException e) {
+            throw new AiUnavailableException("AI request cancelled", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof AiUnavailableException unavailable) {
+                throw unavailable;
+            }
+            throw new AiUnavailableException("AI request failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private final class Flight {
+
+        private final CompletableFuture<String> result = new CompletableFuture<>();
+        private final AtomicInteger waiters = new AtomicInteger(1);
+        private volatile Future<?> task;
+
+        /**
+         * Register another waiter; fails once the last waiter has left
+         */
+        boolean join() {
+            return waiters.getAndUpdate(count -> count > 0 ? count + 1 : count) > 0;
+        }
+
+        void leave(String key) {
+            if (waiters.decrementAndGet() == 0) {
+                inFlight.remove(key, this);
+                result.cancel(false);
+                if (task != null) {
+                    task.cancel(true);
+                }
+                log.debug("Cancelled abandoned AI call for key {}", key);
+            }
+        }
+    }
+}
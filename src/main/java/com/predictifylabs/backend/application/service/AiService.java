@@ -1,11 +1,23 @@
 package com.predictifylabs.backend.application.service;
 
 import com.predictifylabs.backend.application.ports.input.AiServiceUseCase;
+import com.predictifylabs.backend.application.ports.input.EventDescriptionCommand;
 import com.predictifylabs.backend.application.ports.output.AiGeneratorPort;
+import com.predictifylabs.backend.application.ports.output.AiPrompt;
+import com.predictifylabs.backend.application.ports.output.AiResponseCachePort;
+import com.predictifylabs.backend.application.ports.output.AiUnavailableException;
+import com.predictifylabs.backend.domain.model.AiUseCase;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
 /**
  * Application service that orchestrates AI content generation.
  * Implements the input port and uses the output port for generation.
@@ -16,32 +28,145 @@ import org.springframework.stereotype.Service;
 public class AiService implements AiServiceUseCase {
 
     private final AiGeneratorPort aiGeneratorPort;
+    private final AiResponseCachePort responseCache;
+    private final AiRequestCoalescer requestCoalescer;
+    private final PromptBuilder promptBuilder;
 
-    private static final String EVENT_DESCRIPTION_PROMPT_TEMPLATE = """
+    // Sent as systemInstruction, so the per-call content is only the event details
+    private static final String EVENT_DESCRIPTION_INSTRUCTION = """
             You are an expert assistant in tech communities and programming events.
-            Generate an attractive and professional description for a technology event with the following context:
-            
-            %s
-            
+            Generate an attractive and professional description for the technology event described by the user.
             The description should:
             - Be concise (maximum 3 paragraphs)
             - Include benefits for attendees
             - Have a professional yet approachable tone
             - Be in English
-            
             Respond ONLY with the description, without additional explanations.
             """;
 
+    static final String FALLBACK_TEXT = """
+            [AI TEMPORARILY UNAVAILABLE]
+
+            Text generation is paused because the AI provider is slow, failing or over quota.
+            Please try again in a moment.
+            """;
+
     @Override
-    public String generateEventDescription(String eventContext) {
-        log.info("Generating event description with context: {}", eventContext);
-        String prompt = String.format(EVENT_DESCRIPTION_PROMPT_TEMPLATE, eventContext);
-        return aiGeneratorPort.generateText(prompt);
+    public String generateEventDescription(EventDescriptionCommand command) {
+        log.info("Generating event description for: {}", command.eventTitle());
+        return generateCached(buildEventDescriptionPrompt(command));
     }
 
     @Override
     public String generateText(String prompt) {
         log.info("Generating text with custom prompt");
-        return aiGeneratorPort.generateText(prompt);
+        return generateCached(buildTextPrompt(prompt));
+    }
+
+    @Override
+    public CompletableFuture<Void> streamEventDescription(EventDescriptionCommand command,
+                                                          Consumer<String> onChunk) {
+        log.info("Streaming event description for: {}", command.eventTitle());
+        return streamCached(buildEventDescriptionPrompt(command), onChunk);
+    }
+
+    @Override
+    public CompletableFuture<Void> streamText(String prompt, Consumer<String> onChunk) {
+        log.info("Streaming text with custom prompt");
+        return streamCached(buildTextPrompt(prompt), onChunk);
+    }
+
+    @Override
+    public String generatePredictionInsights(AiPrompt prompt) {
+        log.info("Generating prediction insights");
+        return generateCached(prompt);
+    }
+
+    @Override
+    public String generate(AiPrompt prompt) {
+        return generateOrThrow(prompt, cacheKey(prompt));
+    }
+
+    @Override
+    public AiPrompt buildEventDescriptionPrompt(EventDescriptionCommand command) {
+        return promptBuilder.draft(AiUseCase.EVENT_DESCRIPTION, EVENT_DESCRIPTION_INSTRUCTION)
+                .field("Title", command.eventTitle(), 50)
+                .field("Event type", command.eventType(), 25)
+                .field("Technologies", command.technologies(), 60)
+                .field("Additional context", command.additionalContext(), 200)
+                .build();
+    }
+
+    @Override
+    public AiPrompt buildTextPrompt(String prompt) {
+        return promptBuilder.draft(AiUseCase.FREE_TEXT, null)
+                .text(prompt)
+                .build();
+    }
+
+    private String generateCached(AiPrompt prompt) {
+        String key = cacheKey(prompt);
+        try {
+            return generateOrThrow(prompt, key);
+        } catch (AiUnavailableException e) {
+            log.warn("AI unavailable for {}: {}", prompt.useCase(), e.getMessage());
+            return responseCache.getStale(key).orElse(FALLBACK_TEXT);
+        }
+    }
+
+    private String generateOrThrow(AiPrompt prompt, String key) {
+        AiUseCase useCase = prompt.useCase();
+        var cached = responseCache.get(key);
+        if (cached.isPresent()) {
+            log.debug("AI response cache hit for {}", useCase);
+            return cached.get();
+        }
+
+        // Identical concurrent requests share one generator call
+        return requestCoalescer.execute(key, () -> {
+            String text = aiGeneratorPort.generateText(prompt);
+            responseCache.put(key, useCase, text);
+            return text;
+        });
+    }
+
+    /**
+     * Serves a cached response as a single chunk, otherwise streams straight from the generator.
+     * Streamed text is forwarded as it arrives and not collected for the cache.
+     */
+    private CompletableFuture<Void> streamCached(AiPrompt prompt, Consumer<String> onChunk) {
+        String key = cacheKey(prompt);
+        var cached = responseCache.get(key);
+        if (cached.isPresent()) {
+            onChunk.accept(cached.get());
+            return CompletableFuture.completedFuture(null);
+        }
+        try {
+            return aiGeneratorPort.streamText(prompt, onChunk);
+        } catch (AiUnavailableException e) {
+            log.warn("AI unavailable for streaming: {}", e.getMessage());
+            onChunk.accept(responseCache.getStale(key).orElse(FALLBACK_TEXT));
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    /**
+     * SHA-256 of model signature and prompt, so a model or config change never serves old responses
+     */
+    @Override
+    public String cacheKey(AiPrompt prompt) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            digest.update(aiGeneratorPort.modelSignature().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            if (prompt.systemInstruction() != null) {
+                digest.update(prompt.systemInstruction().getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) 0);
+            digest.update(prompt.content().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 }
@@ -0,0 +1,240 @@
+package com.predictifylabs.backend.application.service;
+
+import com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.prediction.AttendanceIntervalDTO;
+import com.predictifylabs.backend.infrastructure.adapters.output.persistence.entity.EventEntity;
+import com.predictifylabs.backend.infrastructure.adapters.output.persistence.repository.EventRegistrationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Monte Carlo simulation of final attendance.
+ * No-show and late-registration rates are bootstrapped from completed events of the
+ * same category and type, falling back to broader groups and finally to a flat prior.
+ * Samples are split into a fixed number of chunks, each with its own split of a
+ * seeded SplittableRandom, so results are identical for a seed.
+ * Chunks run on the calling thread: simulations are already concurrent across requests and
+ * must not compete with other work for the shared ForkJoin pool.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AttendanceSimulationService {
+
+    private static final int CHUNKS = 64;
+    private static final int MIN_OBSERVATIONS = 5;
+    private static final double MAX_LATE_SHARE = 0.95;
+
+    private final EventRegistrationRepository registrationRepository;
+
+    @Value("${application.predictions.monte-carlo.late-window-days:7}")
+    private int lateWindowDays;
+
+    @Value("${application.predictions.monte-carlo.history-refresh:PT6H}")
+    private Duration historyRefresh;
+
+    private volatile OutcomeHistory history;
+
+    /**
+     * Simulate final attendance for an event and report percentile bands
+     *
+     * @param anchorRegistrations registrations used when the event has none yet (e.g. the heuristic estimate)
+     */
+    public AttendanceIntervalDTO simulate(EventEntity event, int anchorRegistrations, int samples, long seed) {
+        var outcomes = currentHistory().lookup(event.getCategory().name(), event.getType().name());
+
+        int capacity = event.getCapacity();
+        int registered = event.getRegisteredCount() > 0 ? event.getRegisteredCount() : anchorRegistrations;
+        long daysUntil = PredictionScorer.daysUntil(LocalDate.now(), event.getStartDate());
+        double remainingLateFraction = daysUntil >= lateWindowDays ? 1.0
+                : Math.max(0, (double) daysUntil / lateWindowDays);
+
+        int chunkSize = (samples + CHUNKS - 1) / CHUNKS;
+        int[] results = new int[chunkSize * CHUNKS];
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] generators = new SplittableRandom[CHUNKS];
+        for (int i = 0; i < CHUNKS; i++) {
+            generators[i] = root.split();
+        }
+
+        for (int chunk = 0; chunk < CHUNKS; chunk++) {
+            SplittableRandom random = generators[chunk];
+            int offset = chunk * chunkSize;
+            for (int i = 0; i < chunkSize; i++) {
+                results[offset + i] = sampleAttendance(random, outcomes, registered, capacity, remainingLateFraction);
+            }
+        }
+
+        int[] sorted = Arrays.copyOf(results, samples);
+        Arrays.sort(sorted);
+        double mean = Arrays.stream(sorted).average().orElse(0);
+
+        return AttendanceIntervalDTO.builder()
+                .eventId(event.getId())
+                .samples(samples)
+                .seed(seed)
+                .basis(outcomes.basis())
+                .historicalEvents(outcomes.size())
+                .mean(Math.round(mean * 10) / 10.0)
+                .p5(percentile(sorted, 0.05))
+                .p10(percentile(sorted, 0.10))
+                .p25(percentile(sorted, 0.25))
+                .p50(percentile(sorted, 0.50))
+                .p75(percentile(sorted, 0.75))
+                .p90(percentile(sorted, 0.90))
+                .p95(percentile(sorted, 0.95))
+                .build();
+    }
+
+    /**
+     * Default seed for an event: stable for the same event and registration count
+     */
+    public static long defaultSeed(EventEntity event) {
+        return event.getId().getMostSignificantBits() ^ event.getId().getLeastSignificantBits()
+                ^ (31L * event.getRegisteredCount());
+    }
+
+    private int sampleAttendance(SplittableRandom random, Outcomes outcomes, int registered, int capacity,
+                                 double remainingLateFraction) {
+        double showRate;
+        double lateShare;
+        if (outcomes.size() > 0) {
+            int pick = random.nextInt(outcomes.size());
+            showRate = outcomes.showRates()[pick];
+            lateShare = Math.min(MAX_LATE_SHARE, outcomes.lateShares()[pick]);
+        } else {
+            showRate = random.nextDouble(0.45, 0.75);
+            lateShare = random.nextDouble(0.15, 0.45);
+        }
+
+        // Registrations still to come in the late window, proportional to what has been seen historically
+        double lateRegistrations = registered * lateShare / (1 - lateShare) * remainingLateFraction;
+        int finalRegistrations = (int) Math.min(capacity, Math.round(registered + lateRegistrations));
+
+        return binomial(random, finalRegistrations, showRate);
+    }
+
+    /**
+     * Binomial draw whose cost does not grow with the number of trials: a normal approximation when
+     * the variance is large, otherwise geometric jumps between successes of the rarer outcome, which
+     * take at most about 50 steps since n*min(p, 1-p) is small whenever the variance is.
+     */
+    static int binomial(SplittableRandom random, int trials, double probability) {
+        // Historical rates above 1 (walk-ins) or below 0 would make the variance negative
+        double p = Math.max(0, Math.min(1, probability));
+        double variance = trials * p * (1 - p);
+        if (variance > 25) {
+            double draw = trials * p + Math.sqrt(variance) * random.nextGaussian();
+            return (int) Math.max(0, Math.min(trials, Math.round(draw)));
+        }
+        double rare = Math.min(p, 1 - p);
+        if (rare <= 0 || trials <= 0) {
+            return p >= 0.5 ? Math.max(0, trials) : 0;
+        }
+        double logMiss = Math.log1p(-rare);
+        int rareCount = 0;
+        long position = 0;
+        while (true) {
+            // Trials up to and including the next rare outcome
+            double jump = Math.floor(Math.log(1 - random.nextDouble()) / logMiss) + 1;
+            if (position + jump > trials) {
+                break;
+            }
+            position += (long) jump;
+            rareCount++;
+        }
+        return p <= 0.5 ? rareCount : trials - rareCount;
+    }
+
+    private static int percentile(int[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private OutcomeHistory currentHistory() {
+        var current = history;
+        if (current != null && current.loadedAt().plus(historyRefresh).isAfter(Instant.now())) {
+            return current;
+        }
+        synchronized (this) {
+            if (history == null || history.loadedAt().plus(historyRefresh).isBefore(Instant.now())) {
+                history = loadHistory();
+            }
+            return history;
+        }
+    }
+
+    private OutcomeHistory loadHistory() {
+        Map<String, List<double[]>> grouped = new HashMap<>();
+        try {
+            for (var outcome : registrationRepository.findCompletedEventOutcomes(lateWindowDays)) {
+                double registered = outcome.getRegistered();
+                double[] observation = {
+                        outcome.getAttended() / registered,
+                        outcome.getLateRegistered() / registered
+                };
+                String category = outcome.getCategory().toUpperCase(Locale.ROOT);
+                String type = outcome.getType().toUpperCase(Locale.ROOT);
+                grouped.computeIfAbsent(category + "|" + type, key -> new ArrayList<>()).add(observation);
+                grouped.computeIfAbsent(category, key -> new ArrayList<>()).add(observation);
+                grouped.computeIfAbsent("*", key -> new ArrayList<>()).add(observation);
+            }
+            log.info("Loaded attendance history from {} completed events",
+                    grouped.getOrDefault("*", List.of()).size());
+        } catch (Exception e) {
+            log.warn("Could not load attendance history, simulating with prior rates: {}", e.getMessage());
+        }
+
+        Map<String, Outcomes> outcomes = new HashMap<>();
+        grouped.forEach((key, observations) -> outcomes.put(key, Outcomes.of(key, observations)));
+        return new OutcomeHistory(Instant.now(), outcomes);
+    }
+
+    private record OutcomeHistory(Instant loadedAt, Map<String, Outcomes> byKey) {
+
+        Outcomes lookup(String category, String type) {
+            for (String key : List.of(category + "|" + type, category, "*")) {
+                var outcomes = byKey.get(key);
+                if (outcomes != null && outcomes.size() >= MIN_OBSERVATIONS) {
+                    return outcomes;
+                }
+            }
+            return Outcomes.PRIOR;
+        }
+    }
+
+    private record Outcomes(String basis, double[] showRates, double[] lateShares) {
+
+        static final Outcomes PRIOR = new Outcomes("prior", new double[0], new double[0]);
+
+        static Outcomes of(String key, List<double[]> observations) {
+            String basis = key.equals("*") ? "all" : key.contains("|") ? "category_type" : "category";
+            double[] showRates = new double[observations.size()];
+            double[] lateShares = new double[observations.size()];
+            for (int i = 0; i < observations.size(); i++) {
+                showRates[i] = observations.get(i)[0];
+                lateShares[i] = observations.get(i)[1];
+            }
+            return new Outcomes(basis, showRates, lateShares);
+        }
+
+        int size() {
+            return showRates.length;
+        }
+    }
+}
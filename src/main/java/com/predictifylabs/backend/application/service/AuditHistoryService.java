@@ -0,0 +1,130 @@
+package com.predictifylabs.backend.application.service;
+
+import com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.audit.AuditLogDTO;
+import com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.audit.AuditLogPageDTO;
+import com.predictifylabs.backend.infrastructure.adapters.output.persistence.entity.AuditLogEntity;
+import com.predictifylabs.backend.infrastructure.adapters.output.persistence.repository.AuditLogRepository;
+import com.predictifylabs.backend.infrastructure.config.AuditProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Audit history of an entity or a user, newest first, in keyset pages.
+ * Every query is bounded to a time range no wider than the configured maximum, so it only touches
+ * the monthly partitions of that range. The cursor is the (created_at, id) of the last row returned.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class AuditHistoryService {
+
+    private static final UUID LAST_ID = new UUID(-1L, -1L);
+
+    private final AuditLogRepository auditLogRepository;
+    private final AuditProperties properties;
+
+    private record Window(OffsetDateTime from, OffsetDateTime to, UUID beforeId, int limit) {
+    }
+
+    private record Cursor(OffsetDateTime createdAt, UUID id) {
+    }
+
+    /**
+     * Throws {@link IllegalArgumentException} for an invalid range or cursor
+     */
+    public AuditLogPageDTO getEntityHistory(String entityType, UUID entityId, OffsetDateTime from,
+                                            OffsetDateTime to, String cursor, Integer limit) {
+        var window = window(from, to, cursor, limit);
+        return page(auditLogRepository.findByEntityBefore(entityType, entityId, window.from(), window.to(),
+                window.beforeId(), PageRequest.of(0, window.limit() + 1)), window.limit());
+    }
+
+    /**
+     * Throws {@link IllegalArgumentException} for an invalid range or cursor
+     */
+    public AuditLogPageDTO getUserHistory(UUID userId, OffsetDateTime from, OffsetDateTime to, String cursor,
+                                          Integer limit) {
+        var window = window(from, to, cursor, limit);
+        return page(auditLogRepository.findByUserBefore(userId, window.from(), window.to(),
+                window.beforeId(), PageRequest.of(0, window.limit() + 1)), window.limit());
+    }
+
+    private Window window(OffsetDateTime from, OffsetDateTime to, String cursor, Integer limit) {
+        var query = properties.getQuery();
+        var end = to != null ? to : OffsetDateTime.now(ZoneOffset.UTC);
+        var start = from != null ? from : end.minus(query.getDefaultRange());
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (start.plus(query.getMaxRange()).isBefore(end)) {
+            throw new IllegalArgumentException("Time range is wider than " + query.getMaxRange());
+        }
+        int size = limit != null ? limit : query.getDefaultPageSize();
+        if (size < 1 || size > query.getMaxPageSize()) {
+            throw new IllegalArgumentException("limit must be between 1 and " + query.getMaxPageSize());
+        }
+
+        UUID beforeId = LAST_ID;
+        if (cursor != null) {
+            var position = decodeCursor(cursor);
+            if (!position.createdAt().isAfter(end)) {
+                end = position.createdAt();
+                beforeId = position.id();
+            }
+        }
+        return new Window(start, end, beforeId, size);
+    }
+
+    private AuditLogPageDTO page(List<AuditLogEntity> rows, int limit) {
+        boolean more = rows.size() > limit;
+        var items = rows.stream().limit(limit).map(this::toDTO).toList();
+        String nextCursor = more ? encodeCursor(items.get(items.size() - 1)) : null;
+        return AuditLogPageDTO.builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private static String encodeCursor(AuditLogDTO last) {
+        String position = last.getCreatedAt().toInstant() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Cursor decodeCursor(String cursor) {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (position.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new Cursor(OffsetDateTime.ofInstant(Instant.parse(position[0]), ZoneOffset.UTC),
+                    UUID.fromString(position[1]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    private AuditLogDTO toDTO(AuditLogEntity entity) {
+        return AuditLogDTO.builder()
+                .id(entity.getId())
+                .userId(entity.getUser() != null ? entity.getUser().getId() : null)
+                .action(entity.getAction())
+                .entityType(entity.getEntityType())
+                .entityId(entity.getEntityId())
+                .oldValues(entity.getOldValues())
+                .newValues(entity.getNewValues())
+                .ipAddress(entity.getIpAddress())
+                .userAgent(entity.getUserAgent())
+                .createdAt(entity.getCreatedAt())
+                .build();
+    }
+}
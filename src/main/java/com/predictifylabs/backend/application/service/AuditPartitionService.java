@@ -0,0 +1,105 @@
+package com.predictifylabs.backend.application.service;
+
+import com.predictifylabs.backend.infrastructure.config.AuditProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Maintenance of the monthly audit_log partitions.
+ * Partitions are created a few months ahead so inserts never lack one, and months past the
+ * retention period are detached and dropped whole instead of deleting their rows.
+ * Detaching is concurrent, so inserts and reads on audit_log are not blocked; a detach left
+ * pending by an interrupted run is finalized on the next one.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AuditPartitionService {
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("audit_log_y(\\d{4})m(\\d{2})");
+
+    private static final String LIST_PARTITIONS = """
+            SELECT c.relname AS name, i.inhdetachpending AS detach_pending
+            FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = 'audit_log'::regclass
+            """;
+
+    private final AuditProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private record Partition(String name, boolean detachPending) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${application.audit.partitions.cron:0 0 2 * * *}")
+    public void maintain() {
+        var settings = properties.getPartitions();
+        if (!settings.isEnabled()) {
+            return;
+        }
+        try {
+            var partitions = listPartitions();
+            var thisMonth = YearMonth.now(ZoneOffset.UTC);
+
+            for (int ahead = 0; ahead <= settings.getMonthsAhead(); ahead++) {
+                var month = thisMonth.plusMonths(ahead);
+                if (!partitions.containsKey(month)) {
+                    String name = jdbcTemplate.queryForObject("SELECT create_audit_log_partition(?)", String.class,
+                            month.atDay(1));
+                    meterRegistry.counter("audit.partitions", "operation", "created").increment();
+                    log.info("Created audit partition {}", name);
+                }
+            }
+
+            var oldestKept = thisMonth.minusMonths(settings.getRetentionMonths());
+            for (var entry : partitions.entrySet()) {
+                if (!entry.getKey().isBefore(oldestKept)) {
+                    break;
+                }
+                drop(entry.getValue());
+            }
+        } catch (Exception e) {
+            log.error("Audit partition maintenance failed", e);
+        }
+    }
+
+    private void drop(Partition partition) {
+        String name = '"' + partition.name() + '"';
+        // Each statement runs on its own: a concurrent detach cannot run inside a transaction
+        jdbcTemplate.execute("ALTER TABLE audit_log DETACH PARTITION " + name
+                + (partition.detachPending() ? " FINALIZE" : " CONCURRENTLY"));
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + name);
+        meterRegistry.counter("audit.partitions", "operation", "dropped").increment();
+        log.info("Dropped audit partition {} past the {} month retention", partition.name(),
+                properties.getPartitions().getRetentionMonths());
+    }
+
+    /**
+     * Monthly partitions by month, oldest first; partitions not named by create_audit_log_partition are left alone
+     */
+    private Map<YearMonth, Partition> listPartitions() {
+        Map<YearMonth, Partition> partitions = new TreeMap<>();
+        jdbcTemplate.query(LIST_PARTITIONS, rs -> {
+            var matcher = PARTITION_NAME.matcher(rs.getString("name"));
+            if (matcher.matches()) {
+                var month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+                partitions.put(month, new Partition(rs.getString("name"), rs.getBoolean("detach_pending")));
+            }
+        });
+        return partitions;
+    }
+}
@@ -0,0 +1,244 @@
+package com.predictifylabs.backend.application.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.predictifylabs.backend.infrastructure.config.AuditProperties;
+import com.predictifylabs.backend.infrastructure.security.AuthenticatedUser;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Application-side audit log.
+ * Services report inserts, updates and deletes with column snapshots; only the fields that changed
+ * are kept, minus the configured noise columns, and the acting user, client address and user agent
+ * are taken from the current request. Records are queued once the surrounding transaction commits
+ * and a single writer thread stores them in multi-row inserts. When the queue is full records are
+ * dropped and counted rather than slowing the request down.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AuditService {
+
+    private static final int MAX_USER_AGENT = 1000;
+
+    private final AuditProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private BlockingQueue<AuditRecord> queue;
+    private Thread writer;
+    private volatile boolean running;
+
+    private record AuditRecord(UUID userId, String action, String entityType, UUID entityId,
+                               Map<String, Object> oldValues, Map<String, Object> newValues,
+                               String ipAddress, String userAgent, OffsetDateTime createdAt) {
+    }
+
+    @PostConstruct
+    void init() {
+        queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        Gauge.builder("audit.queue.depth", queue, BlockingQueue::size)
+                .description("Audit records waiting to be written")
+                .register(meterRegistry);
+        if (properties.isEnabled()) {
+            running = true;
+            writer = Thread.ofPlatform().name("audit-writer").daemon().start(this::writeLoop);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        writer.interrupt();
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Whatever the writer left behind is written here, on the shutting-down thread
+        List<AuditRecord> batch = new ArrayList<>();
+        while (queue.drainTo(batch, properties.getBatchSize()) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Record a created row with its full state
+     */
+    public void recordInsert(String entityType, UUID entityId, Map<String, Object> state) {
+        record("INSERT", entityType, entityId, null, filtered(entityType, state));
+    }
+
+    /**
+     * Record the fields of a row that differ between the two snapshots; nothing is recorded when none did
+     */
+    public void recordUpdate(String entityType, UUID entityId, Map<String, Object> before, Map<String, Object> after) {
+        var excluded = properties.excludedFor(entityType);
+        Map<String, Object> oldValues = new LinkedHashMap<>();
+        Map<String, Object> newValues = new LinkedHashMap<>();
+        for (var entry : after.entrySet()) {
+            String field = entry.getKey();
+            Object previous = before.get(field);
+            if (!excluded.contains(field) && !sameValue(previous, entry.getValue())) {
+                oldValues.put(field, previous);
+                newValues.put(field, entry.getValue());
+            }
+        }
+        if (newValues.isEmpty()) {
+            return;
+        }
+        record("UPDATE", entityType, entityId, oldValues, newValues);
+    }
+
+    /**
+     * Record a deleted row with its last state
+     */
+    public void recordDelete(String entityType, UUID entityId, Map<String, Object> state) {
+        record("DELETE", entityType, entityId, filtered(entityType, state), null);
+    }
+
+    private void record(String operation, String entityType, UUID entityId,
+                        Map<String, Object> oldValues, Map<String, Object> newValues) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        // Request metadata is only reachable on the request thread, so it is captured now
+        var auditRecord = new AuditRecord(currentUserId(), operation + "_" + entityType, entityType, entityId,
+                oldValues, newValues, clientAddress(), userAgent(), OffsetDateTime.now(ZoneOffset.UTC));
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(auditRecord);
+                }
+            });
+        } else {
+            enqueue(auditRecord);
+        }
+    }
+
+    private void enqueue(AuditRecord auditRecord) {
+        if (!queue.offer(auditRecord)) {
+            meterRegistry.counter("audit.records", "outcome", "dropped").increment();
+            log.warn("Audit queue full, dropped {} of {} {}", auditRecord.action(), auditRecord.entityType(),
+                    auditRecord.entityId());
+        }
+    }
+
+    private void writeLoop() {
+        List<AuditRecord> batch = new ArrayList<>(properties.getBatchSize());
+        while (running) {
+            try {
+                var first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, properties.getBatchSize() - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<AuditRecord> batch) {
+        var sql = new StringBuilder("INSERT INTO audit_log (user_id, action, entity_type, entity_id, old_values, "
+                + "new_values, ip_address, user_agent, created_at) VALUES ");
+        List<Object> args = new ArrayList<>(batch.size() * 9);
+        try {
+            for (int i = 0; i < batch.size(); i++) {
+                var auditRecord = batch.get(i);
+                sql.append(i == 0 ? "" : ", ")
+                        .append("(?, ?, ?, ?, CAST(? AS jsonb), CAST(? AS jsonb), CAST(? AS inet), ?, ?)");
+                args.add(auditRecord.userId());
+                args.add(auditRecord.action());
+                args.add(auditRecord.entityType());
+                args.add(auditRecord.entityId());
+                args.add(toJson(auditRecord.oldValues()));
+                args.add(toJson(auditRecord.newValues()));
+                args.add(auditRecord.ipAddress());
+                args.add(auditRecord.userAgent());
+                args.add(auditRecord.createdAt());
+            }
+            Timer.builder("audit.write").register(meterRegistry)
+                    .record(() -> jdbcTemplate.update(sql.toString(), args.toArray()));
+            meterRegistry.counter("audit.records", "outcome", "written").increment(batch.size());
+        } catch (Exception e) {
+            meterRegistry.counter("audit.records", "outcome", "failed").increment(batch.size());
+            log.error("Could not write {} audit records", batch.size(), e);
+        }
+    }
+
+    private Map<String, Object> filtered(String entityType, Map<String, Object> state) {
+        var excluded = properties.excludedFor(entityType);
+        Map<String, Object> values = new LinkedHashMap<>(state);
+        values.keySet().removeAll(excluded);
+        return values;
+    }
+
+    private String toJson(Map<String, Object> values) throws Exception {
+        return values != null ? objectMapper.writeValueAsString(values) : null;
+    }
+
+    private static boolean sameValue(Object a, Object b) {
+        // 10.5 and 10.50 are the same price
+        if (a instanceof BigDecimal x && b instanceof BigDecimal y) {
+            return x.compareTo(y) == 0;
+        }
+        return Objects.equals(a, b);
+    }
+
+    private static UUID currentUserId() {
+        var auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.getPrincipal() instanceof AuthenticatedUser user ? user.id() : null;
+    }
+
+    private static String clientAddress() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                ? attributes.getRequest().getRemoteAddr() : null;
+    }
+
+    private static String userAgent() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return null;
+        }
+        String userAgent = attributes.getRequest().getHeader("User-Agent");
+        return userAgent != null && userAgent.length() > MAX_USER_AGENT
+                ? userAgent.substring(0, MAX_USER_AGENT) : userAgent;
+    }
+}
@@ -0,0 +1,101 @@
+package com.predictifylabs.backend.application.service;
+
+import com.predictifylabs.backend.infrastructure.adapters.output.persistence.entity.EventEntity;
+import com.predictifylabs.backend.infrastructure.adapters.output.persistence.entity.OrganizerEntity;
+import com.predictifylabs.backend.infrastructure.adapters.output.persistence.entity.UserEntity;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Column-keyed snapshots of audited entities, named as in the database so audit rows read the same
+ * as the ones the old triggers wrote. Enum values are stored lowercase like the database enums.
+ * The password hash is never part of a snapshot.
+ */
+public final class AuditSnapshots {
+
+    private AuditSnapshots() {
+    }
+
+    public static Map<String, Object> of(EventEntity event) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("id", event.getId());
+        values.put("organizer_id", event.getOrganizer() != null ? event.getOrganizer().getId() : null);
+        values.put("title", event.getTitle());
+        values.put("slug", event.getSlug());
+        values.put("description", event.getDescription());
+        values.put("short_description", event.getShortDescription());
+        values.put("start_date", event.getStartDate());
+        values.put("end_date", event.getEndDate());
+        values.put("start_time", event.getStartTime());
+        values.put("end_time", event.getEndTime());
+        values.put("timezone", event.getTimezone());
+        values.put("category", lower(event.getCategory()));
+        values.put("type", lower(event.getType()));
+        values.put("status", lower(event.getStatus()));
+        values.put("image_url", event.getImageUrl());
+        values.put("capacity", event.getCapacity());
+        values.put("interested_count", event.getInterestedCount());
+        values.put("registered_count", event.getRegisteredCount());
+        values.put("attendees_count", event.getAttendeesCount());
+        values.put("views_count", event.getViewsCount());
+        values.put("price", event.getPrice());
+        values.put("currency", event.getCurrency());
+        values.put("is_free", event.getIsFree());
+        values.put("is_featured", event.getIsFeatured());
+        values.put("is_trending", event.getIsTrending());
+        values.put("is_new", event.getIsNew());
+        values.put("published_at", event.getPublishedAt());
+        values.put("cancelled_at", event.getCancelledAt());
+        values.put("completed_at", event.getCompletedAt());
+        values.put("created_at", event.getCreatedAt());
+        values.put("updated_at", event.getUpdatedAt());
+        return values;
+    }
+
+    public static Map<String, Object> of(UserEntity user) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("id", user.getId());
+        values.put("name", user.getName());
+        values.put("email", user.getEmail());
+        values.put("avatar", user.getAvatar());
+        values.put("bio", user.getBio());
+        values.put("location", user.getLocation());
+        values.put("role", lower(user.getRole()));
+        values.put("is_verified", user.getIsVerified());
+        values.put("is_active", user.getIsActive());
+        values.put("email_verified_at", user.getEmailVerifiedAt());
+        values.put("last_login_at", user.getLastLoginAt());
+        values.put("failed_login_attempts", user.getFailedLoginAttempts());
+        values.put("locked_until", user.getLockedUntil());
+        values.put("token_version", user.getTokenVersion());
+        values.put("created_at", user.getCreatedAt());
+        values.put("updated_at", user.getUpdatedAt());
+        return values;
+    }
+
+    public static Map<String, Object> of(OrganizerEntity organizer) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("id", organizer.getId());
+        values.put("user_id", organizer.getUser() != null ? organizer.getUser().getId() : null);
+        values.put("display_name", organizer.getDisplayName());
+        values.put("avatar", organizer.getAvatar());
+        values.put("bio", organizer.getBio());
+        values.put("email", organizer.getEmail());
+        values.put("website", organizer.getWebsite());
+        values.put("is_verified", organizer.getIsVerified());
+        values.put("verified_at", organizer.getVerifiedAt());
+        values.put("events_count", organizer.getEventsCount());
+        values.put("average_attendance_rate", organizer.getAverageAttendanceRate());
+        values.put("total_attendees", organizer.getTotalAttendees());
+        values.put("rating", organizer.getRating());
+        values.put("rating_count", organizer.getRatingCount());
+        values.put("created_at", organizer.getCreatedAt());
+        values.put("updated_at", organizer.getUpdatedAt());
+        return values;
+    }
+
+    private static String lower(Enum<?> value) {
+        return value != null ? value.name().toLowerCase() : null;
+    }
+}
@@ -2,34 +2,52 @@ package com.predictifylabs.backend.application.service;
 
 import com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.auth.AuthenticationRequest;
 import com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.auth.AuthenticationResponse;
+import com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.auth.RefreshTokenRequest;
 import com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.auth.RegisterRequest;
 import com.predictifylabs.backend.domain.model.Role;
 import com.predictifylabs.backend.infrastructure.adapters.output.persistence.entity.RefreshTokenEntity;
 import com.predictifylabs.backend.infrastructure.adapters.output.persistence.entity.UserEntity;
 import com.predictifylabs.backend.infrastructure.adapters.output.persistence.repository.RefreshTokenRepository;
 import com.predictifylabs.backend.infrastructure.adapters.output.persistence.repository.UserRepository;
+import com.predictifylabs.backend.infrastructure.security.ClientInfo;
+import com.predictifylabs.backend.infrastructure.security.InvalidRefreshTokenException;
 import com.predictifylabs.backend.infrastructure.security.JwtService;
+import com.predictifylabs.backend.infrastructure.security.LoginThrottler;
+import com.predictifylabs.backend.infrastructure.security.TokenVersionRegistry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.OffsetDateTime;
 import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class AuthenticationService {
     private final UserRepository userRepository;
     private final RefreshTokenRepository refreshTokenRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
-
-    @Transactional
-    public AuthenticationResponse register(RegisterRequest request) {
+    private final TokenVersionRegistry tokenVersions;
+    private final SessionService sessionService;
+    private final LoginThrottler loginThrottler;
+    private final AuditService auditService;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * The password is hashed before the transaction opens, so no database connection is held while BCrypt runs
+     */
+    public AuthenticationResponse register(RegisterRequest request, ClientInfo client) {
         var user = UserEntity.builder()
                 .name(request.getName())
                 .email(request.getEmail())
@@ -37,49 +55,112 @@ public class AuthenticationService {
                 .role(request.getRole() != null ? request.getRole() : Role.ATTENDEE)
                 .build();
 
-        var savedUser = userRepository.save(user);
-
-        var userDetails = new org.springframework.security.core.userdetails.User(
-                savedUser.getEmail(),
-                savedUser.getPassword(),
-                java.util.Collections.emptyList());
-
-        var jwtToken = jwtService.generateToken(userDetails);
-        var refreshToken = jwtService.generateRefreshToken(userDetails);
-
-        saveUserRefreshToken(savedUser, refreshToken);
-
-        return AuthenticationResponse.builder()
-                .accessToken(jwtToken)
-                .refreshToken(refreshToken)
-                .build();
+        return transactionTemplate.execute(status -> {
+            var savedUser = userRepository.save(user);
+            auditService.recordInsert("users", savedUser.getId(), AuditSnapshots.of(savedUser));
+            return issueTokens(savedUser, client, null);
+        });
     }
 
-    @Transactional
-    public AuthenticationResponse authenticate(AuthenticationRequest request) {
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        request.getEmail(),
-                        request.getPassword()));
-
-        var user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    /**
+     * The throttle check and password verification run outside any transaction; only the login
+     * bookkeeping and token issue share one, so no database connection is held while BCrypt runs
+     */
+    public AuthenticationResponse authenticate(AuthenticationRequest request, ClientInfo client) {
+        // Throttled attempts are refused before any password hashing
+        loginThrottler.check(request.getEmail(), client.ipAddress());
+        try {
+            authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(
+                            request.getEmail(),
+                            request.getPassword()));
+        } catch (BadCredentialsException e) {
+            loginThrottler.recordFailure(request.getEmail(), client.ipAddress());
+            throw e;
+        }
+        loginThrottler.recordSuccess(request.getEmail());
+
+        return transactionTemplate.execute(status -> {
+            var user = userRepository.findByEmail(request.getEmail())
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+
+            // Update last login
+            user.setLastLoginAt(OffsetDateTime.now());
+            user.setFailedLoginAttempts((short) 0);
+            userRepository.save(user);
+
+            // Each login opens its own session; sessions on other devices keep their refresh tokens
+            return issueTokens(user, client, null);
+        });
+    }
 
-        // Update last login
-        user.setLastLoginAt(OffsetDateTime.now());
-        user.setFailedLoginAttempts((short) 0);
-        userRepository.save(user);
+    /**
+     * Exchange a refresh token for a new access token and a new refresh token, without a password check.
+     * The session of the old token continues with the new one.
+     * Each refresh token can be used once; presenting one that was already rotated revokes every
+     * session of its user, since it means the token was copied. Tokens revoked for any other reason,
+     * such as an idle session, are just refused.
+     */
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public AuthenticationResponse refresh(RefreshTokenRequest request, ClientInfo client) {
+        String token = request.refreshToken();
+        try {
+            Claims claims = jwtService.extractAllClaims(token);
+            if (!jwtService.isRefreshToken(claims)) {
+                throw new InvalidRefreshTokenException("Not a refresh token");
+            }
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new InvalidRefreshTokenException("Invalid refresh token");
+        }
+
+        var stored = refreshTokenRepository.findByTokenHash(JwtService.hashToken(token))
+                .orElseThrow(() -> new InvalidRefreshTokenException("Unknown refresh token"));
+        var user = stored.getUser();
+        var now = OffsetDateTime.now();
+
+        // Only one request can revoke the token, so concurrent refreshes cannot both succeed
+        if (refreshTokenRepository.revokeIfActive(stored.getId(), now) == 0) {
+            // Read the reason from the database: a concurrent refresh may have revoked it after it was loaded
+            boolean rotated = refreshTokenRepository.findRevokeReason(stored.getId())
+                    .filter(RefreshTokenEntity.REVOKED_ROTATED::equals)
+                    .isPresent();
+            if (rotated && stored.getExpiresAt().isAfter(now)) {
+                log.warn("Reused refresh token for user {}, revoking all sessions", user.getId());
+                revokeAllUserTokens(user.getId(), RefreshTokenEntity.REVOKED_REUSE);
+                tokenVersions.revokeTokens(user.getId());
+                throw new InvalidRefreshTokenException("Refresh token already used");
+            }
+            throw new InvalidRefreshTokenException("Refresh token revoked");
+        }
+        if (!stored.getExpiresAt().isAfter(now)) {
+            throw new InvalidRefreshTokenException("Refresh token expired");
+        }
+        if (!Boolean.TRUE.equals(user.getIsActive())) {
+            throw new InvalidRefreshTokenException("User is not active");
+        }
+
+        return issueTokens(user, client, stored.getId());
+    }
 
+    /**
+     * New access and refresh tokens; the session of the replaced refresh token, if any, is kept, otherwise one is opened
+     */
+    private AuthenticationResponse issueTokens(UserEntity user, ClientInfo client, UUID replacedTokenId) {
         var userDetails = new org.springframework.security.core.userdetails.User(
                 user.getEmail(),
                 user.getPassword(),
                 java.util.Collections.emptyList());
 
-        var jwtToken = jwtService.generateToken(userDetails);
         var refreshToken = jwtService.generateRefreshToken(userDetails);
+        var storedToken = saveUserRefreshToken(user, refreshToken);
 
-        revokeAllUserTokens(user.getId());
-        saveUserRefreshToken(user, refreshToken);
+        UUID sessionId = replacedTokenId != null
+                ? sessionService.rotate(replacedTokenId, storedToken).orElse(null)
+                : null;
+        if (sessionId == null) {
+            sessionId = sessionService.open(user, storedToken, client).getId();
+        }
+        var jwtToken = jwtService.generateToken(user, user.getTokenVersion(), sessionId);
 
         return AuthenticationResponse.builder()
                 .accessToken(jwtToken)
@@ -87,18 +168,17 @@ public class AuthenticationService {
                 .build();
     }
 
-    private void saveUserRefreshToken(UserEntity user, String token) {
+    private RefreshTokenEntity saveUserRefreshToken(UserEntity user, String token) {
         var refreshToken = RefreshTokenEntity.builder()
                 .user(user)
-                .tokenHash(String.valueOf(token.hashCode())) // Simplified - in production use proper hashing
-                .expiresAt(OffsetDateTime.now().plusDays(7))
+                .tokenHash(JwtService.hashToken(token))
+                .expiresAt(OffsetDateTime.now().plus(jwtService.refreshTokenTtl()))
                 .build();
-        refreshTokenRepository.save(refreshToken);
+        return refreshTokenRepository.save(refreshToken);
     }
 
-    private void revokeAllUserTokens(UUID userId) {
-        var validTokens = refreshTokenRepository.findAllValidTokenByUser(userId, OffsetDateTime.now());
-        validTokens.forEach(token -> token.setRevokedAt(OffsetDateTime.now()));
-        refreshTokenRepository.saveAll(validTokens);
+    private void revokeAllUserTokens(UUID userId, String reason) {
+        refreshTokenRepository.revokeAllByUser(userId, OffsetDateTime.now(), reason);
+        sessionService.endAll(userId);
     }
 }
@@ -26,6 +26,7 @@ public class EventRegistrationService {
     private final EventRegistrationRepository registrationRepository;
     private final EventRepository eventRepository;
     private final UserRepository userRepository;
+    private final PredictionRecomputeScheduler recomputeScheduler;
 
     /**
      * Register a user to an event
@@ -63,6 +64,7 @@ public class EventRegistrationService {
         // Update event registered count
         event.setRegisteredCount(event.getRegisteredCount() + 1);
         eventRepository.save(event);
+        recomputeScheduler.markDirty(eventId, event.getStartDate());
 
         log.info("User {} registered to event {} with ticket {}", userId, eventId, saved.getTicketCode());
         return toDTO(saved);
@@ -90,6 +92,7 @@ public class EventRegistrationService {
         var event = registration.getEvent();
         event.setRegisteredCount(Math.max(0, event.getRegisteredCount() - 1));
         eventRepository.save(event);
+        recomputeScheduler.markDirty(eventId, event.getStartDate());
 
         log.info("Registration cancelled for user {} from event {}", userId, eventId);
     }
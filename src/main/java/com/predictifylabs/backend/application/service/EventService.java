@@ -28,6 +28,9 @@ public class EventService {
 
     private final EventRepository eventRepository;
     private final OrganizerRepository organizerRepository;
+    private final PredictionService predictionService;
+    private final PredictionRecomputeScheduler recomputeScheduler;
+    private final AuditService auditService;
 
     /**
      * Get all upcoming published events
@@ -66,6 +69,18 @@ public class EventService {
         return eventRepository.searchByKeyword(keyword).stream().map(this::toDTO).toList();
     }
 
+    /**
+     * Attach the latest prediction to each event of a listing using a single batch lookup
+     */
+    public List<EventDTO> withPredictions(List<EventDTO> events) {
+        var predictions = predictionService.getLatestPredictions(events.stream().map(EventDTO::id).toList());
+        return events.stream()
+                .map(event -> predictions.containsKey(event.id())
+                        ? event.toBuilder().prediction(predictions.get(event.id())).build()
+                        : event)
+                .toList();
+    }
+
     /**
      * Get event by ID
      */
@@ -138,6 +153,7 @@ public class EventService {
         }
 
         var saved = eventRepository.save(event);
+        auditService.recordInsert("events", saved.getId(), AuditSnapshots.of(saved));
         
         // Update organizer event count
         organizer.setEventsCount(organizer.getEventsCount() + 1);
@@ -164,6 +180,7 @@ public class EventService {
         if (!event.getOrganizer().getId().equals(organizer.getId())) {
             throw new RuntimeException("You are not authorized to update this event");
         }
+        var before = AuditSnapshots.of(event);
 
         // Update fields if provided
         if (dto.title() != null) event.setTitle(dto.title());
@@ -198,6 +215,8 @@ public class EventService {
         }
 
         var saved = eventRepository.save(event);
+        auditService.recordUpdate("events", saved.getId(), before, AuditSnapshots.of(saved));
+        recomputeScheduler.markDirty(saved.getId(), saved.getStartDate());
         log.info("Event updated: {}", saved.getId());
         return toDTO(saved);
     }
@@ -220,6 +239,7 @@ public class EventService {
             throw new RuntimeException("You are not authorized to delete this event");
         }
 
+        auditService.recordDelete("events", eventId, AuditSnapshots.of(event));
         eventRepository.delete(event);
         
         // Update organizer event count
@@ -243,12 +263,14 @@ public class EventService {
         if (!event.getOrganizer().getId().equals(organizer.getId())) {
             throw new RuntimeException("You are not authorized to publish this event");
         }
+        var before = AuditSnapshots.of(event);
 
         event.setStatus(EventStatus.PUBLISHED);
         event.setPublishedAt(OffsetDateTime.now());
         event.setIsNew(true);
 
         var saved = eventRepository.save(event);
+        auditService.recordUpdate("events", saved.getId(), before, AuditSnapshots.of(saved));
         log.info("Event published: {}", saved.getId());
         return toDTO(saved);
     }
@@ -267,11 +289,13 @@ public class EventService {
         if (!event.getOrganizer().getId().equals(organizer.getId())) {
             throw new RuntimeException("You are not authorized to cancel this event");
         }
+        var before = AuditSnapshots.of(event);
 
         event.setStatus(EventStatus.CANCELLED);
         event.setCancelledAt(OffsetDateTime.now());
 
         var saved = eventRepository.save(event);
+        auditService.recordUpdate("events", saved.getId(), before, AuditSnapshots.of(saved));
         log.info("Event cancelled: {}", saved.getId());
         return toDTO(saved);
     }
@@ -24,6 +24,7 @@ public class OrganizerService {
 
     private final OrganizerRepository organizerRepository;
     private final UserRepository userRepository;
+    private final AuditService auditService;
 
     /**
      * Get organizer by ID
@@ -75,6 +76,7 @@ public class OrganizerService {
                 .build();
 
         var saved = organizerRepository.save(organizer);
+        auditService.recordInsert("organizers", saved.getId(), AuditSnapshots.of(saved));
         log.info("Organizer profile created with ID: {}", saved.getId());
         return toDTO(saved);
     }
@@ -88,6 +90,7 @@ public class OrganizerService {
 
         var organizer = organizerRepository.findByUserId(userId)
                 .orElseThrow(() -> new RuntimeException("Organizer not found for user: " + userId));
+        var before = AuditSnapshots.of(organizer);
 
         if (dto.displayName() != null) organizer.setDisplayName(dto.displayName());
         if (dto.avatar() != null) organizer.setAvatar(dto.avatar());
@@ -96,6 +99,7 @@ public class OrganizerService {
         if (dto.website() != null) organizer.setWebsite(dto.website());
 
         var saved = organizerRepository.save(organizer);
+        auditService.recordUpdate("organizers", saved.getId(), before, AuditSnapshots.of(saved));
         log.info("Organizer profile updated for user {}", userId);
         return toDTO(saved);
     }
@@ -0,0 +1,71 @@
+package com.predictifylabs.backend.application.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Largest-Triangle-Three-Buckets downsampling for prediction history charts.
+ * Keeps the first and last points and, for every fixed-size bucket in between,
+ * the point that forms the largest triangle with its neighbours, so peaks and
+ * dips survive while the payload stays bounded.
+ */
+final class PredictionHistoryDownsampler {
+
+    private PredictionHistoryDownsampler() {
+    }
+
+    static <T> List<T> lttb(List<T> points, int threshold, ToDoubleFunction<T> x, ToDoubleFunction<T> y) {
+        int size = points.size();
+        if (threshold < 3) {
+            throw new IllegalArgumentException("LTTB threshold must be at least 3");
+        }
+        if (threshold >= size) {
+            return points;
+        }
+
+        List<T> sampled = new ArrayList<>(threshold);
+        double bucketSize = (double) (size - 2) / (threshold - 2);
+
+        int selected = 0;
+        sampled.add(points.get(0));
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            // Average of the next bucket acts as the third triangle vertex
+            int nextStart = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min((int) Math.floor((bucket + 2) * bucketSize) + 1, size);
+            double avgX = 0;
+            double avgY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                avgX += x.applyAsDouble(points.get(i));
+                avgY += y.applyAsDouble(points.get(i));
+            }
+            int nextLength = Math.max(1, nextEnd - nextStart);
+            avgX /= nextLength;
+            avgY /= nextLength;
+
+            int start = (int) Math.floor(bucket * bucketSize) + 1;
+            int end = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+
+            double pointX = x.applyAsDouble(points.get(selected));
+            double pointY = y.applyAsDouble(points.get(selected));
+
+            double maxArea = -1;
+            int maxIndex = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((pointX - avgX) * (y.applyAsDouble(points.get(i)) - pointY)
+                        - (pointX - x.applyAsDouble(points.get(i))) * (avgY - pointY));
+                if (area > maxArea) {
+                    maxArea = area;
+                    maxIndex = i;
+                }
+            }
+
+            sampled.add(points.get(maxIndex));
+            selected = maxIndex;
+        }
+
+        sampled.add(points.get(size - 1));
+        return sampled;
+    }
+}
@@ -0,0 +1,184 @@
+package com.predictifylabs.backend.application.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.predictifylabs.backend.application.ports.input.AiServiceUseCase;
+import com.predictifylabs.backend.application.ports.output.AiPrompt;
+import com.predictifylabs.backend.domain.model.AiUseCase;
+import com.predictifylabs.backend.infrastructure.adapters.output.persistence.repository.EventPredictionRepository;
+import com.predictifylabs.backend.infrastructure.adapters.output.persistence.repository.EventPredictionRepository.PendingInsight;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Background generation of prediction insights.
+ * Upcoming events whose latest prediction has no insight are sent to the model several at a
+ * time in one prompt, and the answers are stored on the prediction rows, so reading an insight
+ * never calls the model. Predictions that did not change materially inherit the previous
+ * insight when they are created and never reach this worker.
+ * A response that cannot be parsed stops the run and delays the next ones with exponential
+ * backoff, so a model answering badly cannot spend the daily call budget on retries.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PredictionInsightService {
+
+    private static final TypeReference<Map<String, String>> INSIGHT_MAP = new TypeReference<>() {
+    };
+
+    private static final String INSIGHT_INSTRUCTION = """
+            For each labelled event, provide a brief insight (2-3 sentences) about its expected attendance.
+            Respond ONLY with a JSON object mapping each event label to its insight, for example {"E1": "...", "E2": "..."}.
+            """;
+
+    private final EventPredictionRepository predictionRepository;
+    private final AiServiceUseCase aiService;
+    private final PromptBuilder promptBuilder;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${application.predictions.insights.enabled:true}")
+    private boolean enabled;
+
+    @Value("${application.predictions.insights.batch-size:5}")
+    private int batchSize;
+
+    @Value("${application.predictions.insights.max-batches-per-run:10}")
+    private int maxBatchesPerRun;
+
+    @Value("${application.predictions.insights.daily-call-budget:200}")
+    private int dailyCallBudget;
+
+    @Value("${application.predictions.insights.failure-backoff:PT5M}")
+    private Duration failureBackoff;
+
+    @Value("${application.predictions.insights.max-failure-backoff:PT2H}")
+    private Duration maxFailureBackoff;
+
+    private LocalDate budgetDay;
+    private int callsToday;
+    private int consecutiveFailures;
+    private Instant retryAfter = Instant.MIN;
+
+    /**
+     * Generate insights for pending predictions until none are left, the run limit or the daily budget is reached
+     */
+    @Scheduled(fixedDelayString = "${application.predictions.insights.interval:PT1M}")
+    public void generatePendingInsights() {
+        if (!enabled || Instant.now().isBefore(retryAfter)) {
+            return;
+        }
+        try {
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                var pending = predictionRepository.findPendingInsights(LocalDate.now(), batchSize);
+                if (pending.isEmpty()) {
+                    return;
+                }
+                if (!tryConsumeBudget()) {
+                    log.info("Daily insight budget of {} calls reached, {} events still pending",
+                            dailyCallBudget, pending.size());
+                    return;
+                }
+                int stored = generateBatch(pending);
+                // A batch that stored nothing would come back unchanged next iteration
+                if (stored == 0 || pending.size() < batchSize) {
+                    return;
+                }
+            }
+        } catch (Exception e) {
+            log.error("Insight generation run failed", e);
+        }
+    }
+
+    private int generateBatch(List<PendingInsight> pending) {
+        String response = aiService.generatePredictionInsights(buildBatchPrompt(pending));
+
+        Map<String, String> insights;
+        try {
+            int start = response.indexOf('{');
+            int end = response.lastIndexOf('}');
+            if (start < 0 || end <= start) {
+                throw new IllegalArgumentException("no JSON object in response");
+            }
+            insights = objectMapper.readValue(response.substring(start, end + 1), INSIGHT_MAP);
+        } catch (Exception e) {
+            log.warn("Could not parse batched insight response: {}", e.getMessage());
+            meterRegistry.counter("predictions.insights.batches", "outcome", "unparseable").increment();
+            backOff();
+            return 0;
+        }
+        consecutiveFailures = 0;
+
+        var now = OffsetDateTime.now(ZoneOffset.UTC);
+        int stored = 0;
+        for (int i = 0; i < pending.size(); i++) {
+            String insight = insights.get(label(i));
+            if (insight != null && !insight.isBlank()) {
+                stored += predictionRepository.saveInsight(pending.get(i).getPredictionId(), insight.trim(), now);
+            }
+        }
+        meterRegistry.counter("predictions.insights.batches", "outcome", "ok").increment();
+        meterRegistry.counter("predictions.insights.generated").increment(stored);
+        log.info("Stored {} of {} batched prediction insights", stored, pending.size());
+        return stored;
+    }
+
+    private AiPrompt buildBatchPrompt(List<PendingInsight> pending) {
+        var draft = promptBuilder.draft(AiUseCase.PREDICTION_INSIGHT, INSIGHT_INSTRUCTION);
+        for (int i = 0; i < pending.size(); i++) {
+            var event = pending.get(i);
+            draft.line("[" + label(i) + "]")
+                    .field("Event", event.getTitle(), 40)
+                    .line("Category/Type: " + event.getCategory() + "/" + event.getType()
+                            + ", capacity " + event.getCapacity()
+                            + ", free " + event.getIsFree()
+                            + ", starts " + event.getStartDate())
+                    .line("Registered " + event.getRegisteredCount()
+                            + ", interested " + event.getInterestedCount()
+                            + ", views " + event.getViewsCount())
+                    .line("Prediction: " + event.getProbability() + "% " + event.getLevel().toUpperCase()
+                            + ", expected " + event.getEstimatedExpected());
+        }
+        return draft.build();
+    }
+
+    private void backOff() {
+        consecutiveFailures++;
+        var delay = failureBackoff.multipliedBy(1L << Math.min(consecutiveFailures - 1, 16));
+        if (delay.compareTo(maxFailureBackoff) > 0) {
+            delay = maxFailureBackoff;
+        }
+        retryAfter = Instant.now().plus(delay);
+        log.warn("Insight generation paused for {} after {} unparseable responses", delay, consecutiveFailures);
+    }
+
+    private static String label(int index) {
+        return "E" + (index + 1);
+    }
+
+    private synchronized boolean tryConsumeBudget() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        if (!today.equals(budgetDay)) {
+            budgetDay = today;
+            callsToday = 0;
+        }
+        if (callsToday >= dailyCallBudget) {
+            return false;
+        }
+        callsToday++;
+        return true;
+    }
+}
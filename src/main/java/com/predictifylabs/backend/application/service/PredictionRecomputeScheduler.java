@@ -0,0 +1,199 @@
+package com.predictifylabs.backend.application.service;
+
+import com.predictifylabs.backend.domain.model.EventCategory;
+import com.predictifylabs.backend.domain.model.EventStatus;
+import com.predictifylabs.backend.domain.model.EventType;
+import com.predictifylabs.backend.infrastructure.adapters.output.persistence.entity.EventEntity;
+import com.predictifylabs.backend.infrastructure.adapters.output.persistence.repository.EventRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Recomputes predictions of events whose inputs changed instead of recomputing everything.
+ * Writes mark an event dirty; every drain tick the dirty set is ordered by staleness weighted
+ * by proximity to the start date and at most max-per-tick events are recomputed.
+ * An event whose input fingerprint matches the last recomputed one is skipped. Fingerprints only
+ * live for the day they were taken and are not kept for finished events.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PredictionRecomputeScheduler {
+
+    private final EventRepository eventRepository;
+    private final PredictionService predictionService;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<UUID, DirtyEvent> dirty = new ConcurrentHashMap<>();
+    private final Map<UUID, Fingerprint> fingerprints = new ConcurrentHashMap<>();
+
+    @Value("${application.predictions.recompute.enabled:true}")
+    private boolean enabled;
+
+    @Value("${application.predictions.recompute.max-per-tick:20}")
+    private int maxPerTick;
+
+    @Value("${application.predictions.recompute.urgency-horizon-days:30}")
+    private int urgencyHorizonDays;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("predictions.recompute.queue.depth", dirty, Map::size)
+                .description("Events waiting for a prediction recompute")
+                .register(meterRegistry);
+        Gauge.builder("predictions.recompute.queue.oldest.age", this, scheduler -> scheduler.oldestAge().toSeconds())
+                .description("Seconds the longest-waiting dirty event has been queued")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Mark an event's prediction as stale. Repeated marks keep the original dirty time.
+     * Inside a transaction the mark is deferred until commit, so the drain never reads
+     * uncommitted inputs and a rolled back write marks nothing.
+     */
+    public void markDirty(UUID eventId, LocalDate startDate) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(eventId, startDate);
+                }
+            });
+        } else {
+            enqueue(eventId, startDate);
+        }
+    }
+
+    private void enqueue(UUID eventId, LocalDate startDate) {
+        dirty.merge(eventId, new DirtyEvent(Instant.now(), startDate),
+                (current, update) -> new DirtyEvent(current.dirtySince(), update.startDate()));
+    }
+
+    /**
+     * Recompute the most urgent dirty events, bounded per tick
+     */
+    @Scheduled(fixedDelayString = "${application.predictions.recompute.drain-interval:PT15S}")
+    public void drain() {
+        if (!enabled) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        // Yesterday's fingerprints can never match again since the date is part of them
+        fingerprints.values().removeIf(fingerprint -> fingerprint.day().isBefore(today));
+        if (dirty.isEmpty()) {
+            return;
+        }
+
+        Instant now = Instant.now();
+        var queue = new PriorityQueue<Map.Entry<UUID, DirtyEvent>>(
+                Comparator.comparingDouble((Map.Entry<UUID, DirtyEvent> entry) ->
+                        priority(entry.getValue(), now, today)).reversed());
+        queue.addAll(dirty.entrySet());
+
+        int processed = 0;
+        while (processed < maxPerTick && !queue.isEmpty()) {
+            var entry = queue.poll();
+            // Only dequeue the mark we ranked; a newer one stays for the next tick
+            if (!dirty.remove(entry.getKey(), entry.getValue())) {
+                continue;
+            }
+            processed++;
+            recompute(entry.getKey(), today);
+        }
+    }
+
+    private void recompute(UUID eventId, LocalDate today) {
+        try {
+            var event = eventRepository.findById(eventId).orElse(null);
+            if (event == null) {
+                fingerprints.remove(eventId);
+                meterRegistry.counter("predictions.recompute", "outcome", "missing").increment();
+                return;
+            }
+
+            var fingerprint = Fingerprint.of(event, today);
+            if (fingerprint.equals(fingerprints.get(eventId))) {
+                meterRegistry.counter("predictions.recompute", "outcome", "unchanged").increment();
+                return;
+            }
+
+            predictionService.generatePrediction(eventId);
+            if (isFinished(event, today)) {
+                fingerprints.remove(eventId);
+            } else {
+                fingerprints.put(eventId, fingerprint);
+            }
+            meterRegistry.counter("predictions.recompute", "outcome", "recomputed").increment();
+        } catch (Exception e) {
+            log.warn("Prediction recompute failed for event {}: {}", eventId, e.getMessage());
+            meterRegistry.counter("predictions.recompute", "outcome", "failed").increment();
+        }
+    }
+
+    /**
+     * Seconds dirty, multiplied by up to urgency-horizon-days + 1 for events starting soon
+     */
+    private double priority(DirtyEvent event, Instant now, LocalDate today) {
+        double staleness = Math.max(1, Duration.between(event.dirtySince(), now).toSeconds());
+        if (event.startDate() == null) {
+            return staleness;
+        }
+        long daysUntil = Math.max(0, PredictionScorer.daysUntil(today, event.startDate()));
+        double urgency = 1 + Math.max(0, urgencyHorizonDays - daysUntil);
+        return staleness * urgency;
+    }
+
+    private Duration oldestAge() {
+        Instant now = Instant.now();
+        return dirty.values().stream()
+                .map(DirtyEvent::dirtySince)
+                .min(Comparator.naturalOrder())
+                .map(oldest -> Duration.between(oldest, now))
+                .orElse(Duration.ZERO);
+    }
+
+    private static boolean isFinished(EventEntity event, LocalDate today) {
+        LocalDate lastDay = event.getEndDate() != null ? event.getEndDate() : event.getStartDate();
+        return event.getStatus() == EventStatus.COMPLETED
+                || event.getStatus() == EventStatus.CANCELLED
+                || (lastDay != null && lastDay.isBefore(today));
+    }
+
+    private record DirtyEvent(Instant dirtySince, LocalDate startDate) {
+    }
+
+    /**
+     * Every input the prediction reads, compared by value. Includes the day since the time factor moves daily.
+     */
+    private record Fingerprint(LocalDate day, LocalDate startDate, Integer capacity, Integer registeredCount,
+                               Integer interestedCount, Integer viewsCount, Boolean isFree, Boolean isFeatured,
+                               Boolean isTrending, EventCategory category, EventType type) {
+
+        static Fingerprint of(EventEntity event, LocalDate day) {
+            return new Fingerprint(day, event.getStartDate(), event.getCapacity(), event.getRegisteredCount(),
+                    event.getInterestedCount(), event.getViewsCount(), event.getIsFree(), event.getIsFeatured(),
+                    event.getIsTrending(), event.getCategory(), event.getType());
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.predictifylabs.backend.application.service;
+
+import com.predictifylabs.backend.infrastructure.adapters.output.persistence.repository.EventPredictionRepository;
+import com.predictifylabs.backend.infrastructure.adapters.output.persistence.repository.EventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Background compaction of the event_predictions history.
+ * Recent predictions are kept at full resolution, older ones are reduced to one
+ * summary row per day, and completed events keep only their final prediction.
+ * Deletes run event by event in small chunks, each in its own transaction.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PredictionRetentionService {
+
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    private final EventRepository eventRepository;
+    private final EventPredictionRepository predictionRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${application.predictions.retention.enabled:true}")
+    private boolean enabled;
+
+    @Value("${application.predictions.retention.full-resolution-days:30}")
+    private int fullResolutionDays;
+
+    @Value("${application.predictions.retention.completed-event-days:90}")
+    private int completedEventDays;
+
+    @Value("${application.predictions.retention.batch-size:500}")
+    private int batchSize;
+
+    @Value("${application.predictions.retention.event-page-size:200}")
+    private int eventPageSize;
+
+    @Value("${application.predictions.retention.pause-between-batches-ms:50}")
+    private long pauseBetweenBatchesMs;
+
+    /**
+     * Run both retention policies
+     */
+    @Scheduled(cron = "${application.predictions.retention.cron:0 30 3 * * *}")
+    public void compact() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            long downsampled = compactIntraDayHistory();
+            long completed = compactCompletedEvents();
+            log.info("Prediction retention finished: {} intra-day rows and {} completed-event rows removed",
+                    downsampled, completed);
+        } catch (Exception e) {
+            log.error("Prediction retention run failed", e);
+        }
+    }
+
+    /**
+     * Keep full resolution for the last N days and one summary row per day before that
+     */
+    public long compactIntraDayHistory() {
+        OffsetDateTime cutoff = OffsetDateTime.now().minusDays(fullResolutionDays);
+        return forEachEvent(
+                (afterId, page) -> eventRepository.findIdsAfter(afterId, page),
+                eventId -> predictionRepository.deleteIntraDayChunk(eventId, cutoff, batchSize),
+                "downsample");
+    }
+
+    /**
+     * Keep only the final prediction of events completed more than N days ago
+     */
+    public long compactCompletedEvents() {
+        OffsetDateTime completedBefore = OffsetDateTime.now().minusDays(completedEventDays);
+        return forEachEvent(
+                (afterId, page) -> eventRepository.findCompletedIdsAfter(completedBefore, afterId, page),
+                eventId -> predictionRepository.deleteAllButLatestChunk(eventId, batchSize),
+                "completed");
+    }
+
+    private long forEachEvent(BiFunction<UUID, PageRequest, List<UUID>> pageLoader,
+                              ToIntFunction<UUID> chunkDeleter,
+                              String policy) {
+        var deletedCounter = meterRegistry.counter("predictions.retention.deleted", "policy", policy);
+        long total = 0;
+        UUID afterId = FIRST_ID;
+
+        while (true) {
+            List<UUID> eventIds = pageLoader.apply(afterId, PageRequest.of(0, eventPageSize));
+            if (eventIds.isEmpty()) {
+                return total;
+            }
+
+            for (UUID eventId : eventIds) {
+                int deleted;
+                do {
+                    deleted = chunkDeleter.applyAsInt(eventId);
+                    total += deleted;
+                    deletedCounter.increment(deleted);
+                    if (deleted == batchSize) {
+                        pause();
+                    }
+                } while (deleted == batchSize);
+            }
+
+            afterId = eventIds.get(eventIds.size() - 1);
+        }
+    }
+
+    private void pause() {
+        if (pauseBetweenBatchesMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(pauseBetweenBatchesMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Prediction retention interrupted", e);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.predictifylabs.backend.application.service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Scoring model behind attendance predictions.
+ * Factor scores and weights live here so that persisted predictions and
+ * what-if simulations evaluate exactly the same arithmetic.
+ */
+final class PredictionScorer {
+
+    static final double TIME_WEIGHT = 0.2;
+    static final double REGISTRATION_WEIGHT = 0.3;
+    static final double INTEREST_WEIGHT = 0.15;
+    static final double VISIBILITY_WEIGHT = 0.1;
+    static final double PRICE_WEIGHT = 0.15;
+    static final double PROMOTION_WEIGHT = 0.1;
+
+    // Summed in factor order, as the factor-based calculation does
+    static final double TOTAL_WEIGHT = TIME_WEIGHT + REGISTRATION_WEIGHT + INTEREST_WEIGHT
+            + VISIBILITY_WEIGHT + PRICE_WEIGHT + PROMOTION_WEIGHT;
+
+    private PredictionScorer() {
+    }
+
+    static long daysUntil(LocalDate today, LocalDate startDate) {
+        return ChronoUnit.DAYS.between(today, startDate);
+    }
+
+    static long timeScore(long daysUntil) {
+        return Math.max(0, 100 - daysUntil);
+    }
+
+    static double registrationRate(int capacity, int registeredCount) {
+        return capacity > 0 ? (double) registeredCount / capacity * 100 : 0;
+    }
+
+    static int interestScore(int interestedCount) {
+        return interestedCount > 0 ? Math.min(100, interestedCount * 2) : 0;
+    }
+
+    static int visibilityScore(int viewsCount) {
+        return viewsCount > 0 ? Math.min(100, viewsCount / 10) : 0;
+    }
+
+    static int priceScore(boolean isFree) {
+        return isFree ? 80 : 50;
+    }
+
+    static int promotionScore(boolean isFeatured, boolean isTrending) {
+        return (isFeatured ? 50 : 0) + (isTrending ? 50 : 0);
+    }
+
+    static int expectedAttendance(int capacity, int probability, int currentRegistrations) {
+        int baseExpected = (capacity * probability) / 100;
+        // Weight current registrations more heavily
+        return (baseExpected + currentRegistrations * 2) / 3;
+    }
+
+    /**
+     * Evaluates every combination of the override axes in one pass over primitive arrays.
+     * Per-axis weighted terms are computed once; each cell then only adds them up in factor order.
+     * Cells are written row-major with start date as the outermost and featured as the innermost axis.
+     */
+    static void scoreGrid(long[] startDays, int[] capacities, boolean[] freeOptions,
+                          boolean[] featuredOptions, int registeredCount, int interestedCount, int viewsCount,
+                          boolean isTrending, int[] probabilityOut, int[] expectedOut) {
+        double[] timeTerms = new double[startDays.length];
+        for (int i = 0; i < startDays.length; i++) {
+            timeTerms[i] = timeScore(startDays[i]) * TIME_WEIGHT;
+        }
+        double[] registrationTerms = new double[capacities.length];
+        for (int i = 0; i < capacities.length; i++) {
+            registrationTerms[i] = registrationRate(capacities[i], registeredCount) * REGISTRATION_WEIGHT;
+        }
+        double interestTerm = interestScore(interestedCount) * INTEREST_WEIGHT;
+        double visibilityTerm = visibilityScore(viewsCount) * VISIBILITY_WEIGHT;
+        double[] priceTerms = new double[freeOptions.length];
+        for (int i = 0; i < freeOptions.length; i++) {
+            priceTerms[i] = priceScore(freeOptions[i]) * PRICE_WEIGHT;
+        }
+        double[] promotionTerms = new double[featuredOptions.length];
+        for (int i = 0; i < featuredOptions.length; i++) {
+            promotionTerms[i] = promotionScore(featuredOptions[i], isTrending) * PROMOTION_WEIGHT;
+        }
+
+        int cell = 0;
+        for (double timeTerm : timeTerms) {
+            for (int c = 0; c < capacities.length; c++) {
+                double partial = timeTerm + registrationTerms[c] + interestTerm + visibilityTerm;
+                int capacity = capacities[c];
+                for (double priceTerm : priceTerms) {
+                    double withPrice = partial + priceTerm;
+                    for (double promotionTerm : promotionTerms) {
+                        int probability = (int) ((withPrice + promotionTerm) / TOTAL_WEIGHT);
+                        probabilityOut[cell] = probability;
+                        expectedOut[cell] = expectedAttendance(capacity, probability, registeredCount);
+                        cell++;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -2,23 +2,35 @@ package com.predictifylabs.backend.application.service;
 
 import com.predictifylabs.backend.domain.model.PredictionLevel;
 import com.predictifylabs.backend.domain.model.PredictionTrend;
+import com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.prediction.AttendanceIntervalDTO;
 import com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.prediction.PredictionDTO;
 import com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.prediction.PredictionFactorDTO;
+import com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.prediction.PredictionHistoryDTO;
+import com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.prediction.PredictionHistoryPointDTO;
+import com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.prediction.PredictionSimulationDTO;
+import com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.prediction.PredictionSimulationRequest;
 import com.predictifylabs.backend.infrastructure.adapters.output.persistence.entity.EventEntity;
 import com.predictifylabs.backend.infrastructure.adapters.output.persistence.entity.EventPredictionEntity;
 import com.predictifylabs.backend.infrastructure.adapters.output.persistence.repository.EventPredictionRepository;
 import com.predictifylabs.backend.infrastructure.adapters.output.persistence.repository.EventRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
-import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service for event attendance prediction operations
@@ -32,7 +44,28 @@ public class PredictionService {
 
     private final EventPredictionRepository predictionRepository;
     private final EventRepository eventRepository;
-    private final AiService aiService;
+    private final AttendanceSimulationService attendanceSimulationService;
+
+    private static final int DEFAULT_HISTORY_DAYS = 90;
+    private static final int MIN_HISTORY_POINTS = 10;
+    private static final int MAX_HISTORY_POINTS = 1000;
+    private static final int MAX_HISTORY_DAYS = 366;
+    private static final int MAX_HISTORY_ROWS = 20_000;
+    private static final int MIN_SIMULATION_SAMPLES = 100;
+    // The intervals endpoint is public, so a caller cannot ask for much more than the default
+    private static final int MAX_SIMULATION_SAMPLES = 5_000;
+
+    @Value("${application.predictions.monte-carlo.enabled:true}")
+    private boolean monteCarloEnabled;
+
+    @Value("${application.predictions.monte-carlo.samples:2000}")
+    private int monteCarloSamples;
+
+    @Value("${application.predictions.insights.material-probability-change:5}")
+    private int materialProbabilityChange;
+
+    @Value("${application.predictions.insights.material-expected-change-ratio:0.1}")
+    private double materialExpectedChangeRatio;
 
     /**
      * Get the latest prediction for an event
@@ -43,6 +76,59 @@ public class PredictionService {
                 .orElse(null);
     }
 
+    /**
+     * Get the latest prediction of several events at once, keyed by event ID.
+     * Events without a prediction are absent from the result.
+     */
+    public Map<UUID, PredictionDTO> getLatestPredictions(Collection<UUID> eventIds) {
+        if (eventIds.isEmpty()) {
+            return Map.of();
+        }
+        return predictionRepository.findLatestByEventIds(eventIds).stream()
+                .map(this::toDTO)
+                .collect(Collectors.toMap(PredictionDTO::eventId, Function.identity()));
+    }
+
+    /**
+     * Get the prediction history of an event downsampled to at most maxPoints points.
+     * At most the newest MAX_HISTORY_ROWS rows of the range are read.
+     * Throws {@link IllegalArgumentException} when from is after to or the range is too wide.
+     */
+    public PredictionHistoryDTO getPredictionHistory(UUID eventId, OffsetDateTime from, OffsetDateTime to, int maxPoints) {
+        OffsetDateTime end = to != null ? to : OffsetDateTime.now();
+        OffsetDateTime start = from != null ? from : end.minusDays(DEFAULT_HISTORY_DAYS);
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (start.plusDays(MAX_HISTORY_DAYS).isBefore(end)) {
+            throw new IllegalArgumentException("History range is wider than " + MAX_HISTORY_DAYS + " days");
+        }
+        int threshold = Math.max(MIN_HISTORY_POINTS, Math.min(MAX_HISTORY_POINTS, maxPoints));
+
+        var rows = new ArrayList<>(predictionRepository.findHistoryByEventId(eventId, start, end,
+                PageRequest.of(0, MAX_HISTORY_ROWS)));
+        Collections.reverse(rows);
+        var sampled = PredictionHistoryDownsampler.lttb(rows, threshold,
+                row -> row.getCalculatedAt().toInstant().toEpochMilli(),
+                row -> row.getProbability());
+
+        return PredictionHistoryDTO.builder()
+                .eventId(eventId)
+                .from(start)
+                .to(end)
+                .rawCount(rows.size())
+                .maxPoints(threshold)
+                .points(sampled.stream()
+                        .map(row -> PredictionHistoryPointDTO.builder()
+                                .calculatedAt(row.getCalculatedAt())
+                                .probability(row.getProbability())
+                                .estimatedExpected(row.getEstimatedExpected())
+                                .confidence(row.getConfidence())
+                                .build())
+                        .toList())
+                .build();
+    }
+
     /**
      * Generate a new prediction for an event
      */
@@ -66,8 +152,17 @@ public class PredictionService {
         int capacity = event.getCapacity();
         int currentRegistrations = event.getRegisteredCount();
         int estimatedExpected = calculateExpectedAttendance(capacity, baseProbability, currentRegistrations);
-        int estimatedMin = Math.max(currentRegistrations, (int) (estimatedExpected * 0.7));
-        int estimatedMax = Math.min(capacity, (int) (estimatedExpected * 1.3));
+        int estimatedMin;
+        int estimatedMax;
+        if (monteCarloEnabled) {
+            var interval = attendanceSimulationService.simulate(event, estimatedExpected, monteCarloSamples,
+                    AttendanceSimulationService.defaultSeed(event));
+            estimatedMin = Math.min(interval.p10(), estimatedExpected);
+            estimatedMax = Math.max(interval.p90(), estimatedExpected);
+        } else {
+            estimatedMin = Math.max(currentRegistrations, (int) (estimatedExpected * 0.7));
+            estimatedMax = Math.min(capacity, (int) (estimatedExpected * 1.3));
+        }
 
         // Determine trend
         PredictionTrend trend = determineTrend(event);
@@ -86,6 +181,14 @@ public class PredictionService {
                 .calculatedAt(OffsetDateTime.now())
                 .build();
 
+        // Keep the previous insight unless the prediction moved enough to need a new one
+        predictionRepository.findLatestByEventId(eventId)
+                .filter(previous -> previous.getInsight() != null && !isMaterialChange(previous, prediction))
+                .ifPresent(previous -> {
+                    prediction.setInsight(previous.getInsight());
+                    prediction.setInsightGeneratedAt(previous.getInsightGeneratedAt());
+                });
+
         var saved = predictionRepository.save(prediction);
         log.info("Prediction generated for event {}: probability={}, level={}", eventId, baseProbability, level);
 
@@ -93,24 +196,67 @@ public class PredictionService {
     }
 
     /**
-     * Generate AI-enhanced description for prediction context
+     * Simulate final attendance of an event and return percentile bands.
+     * The same seed always yields the same bands; without one a seed derived from the event is used.
      */
-    public String generatePredictionInsight(UUID eventId) {
+    public AttendanceIntervalDTO getAttendanceIntervals(UUID eventId, Integer samples, Long seed) {
         var event = eventRepository.findById(eventId)
                 .orElseThrow(() -> new RuntimeException("Event not found with id: " + eventId));
 
-        var prediction = predictionRepository.findLatestByEventId(eventId)
-                .orElse(null);
+        int sampleCount = samples != null
+                ? Math.max(MIN_SIMULATION_SAMPLES, Math.min(MAX_SIMULATION_SAMPLES, samples))
+                : monteCarloSamples;
+        int baseProbability = calculateBaseProbability(event, calculatePredictionFactors(event));
+        int anchor = calculateExpectedAttendance(event.getCapacity(), baseProbability, event.getRegisteredCount());
 
-        String context = buildPredictionContext(event, prediction);
+        return attendanceSimulationService.simulate(event, anchor, sampleCount,
+                seed != null ? seed : AttendanceSimulationService.defaultSeed(event));
+    }
 
-        try {
-            return aiService.generateText(
-                    "Based on the following event data, provide a brief insight (2-3 sentences) about the expected attendance:\n" + context);
-        } catch (Exception e) {
-            log.error("Failed to generate AI insight for event {}", eventId, e);
-            return "Prediction analysis is currently unavailable.";
-        }
+    /**
+     * Evaluate a grid of what-if overrides against the event's current features.
+     * Nothing is persisted; axes left empty keep the event's current value.
+     */
+    public PredictionSimulationDTO simulatePrediction(UUID eventId, PredictionSimulationRequest request) {
+        var event = eventRepository.findById(eventId)
+                .orElseThrow(() -> new RuntimeException("Event not found with id: " + eventId));
+
+        List<LocalDate> startDates = axisOrDefault(request.startDates(), event.getStartDate());
+        List<Integer> capacities = axisOrDefault(request.capacities(), event.getCapacity());
+        List<Boolean> freeOptions = axisOrDefault(request.isFree(), event.getIsFree() != null && event.getIsFree());
+        List<Boolean> featuredOptions = axisOrDefault(request.featured(),
+                event.getIsFeatured() != null && event.getIsFeatured());
+
+        LocalDate today = LocalDate.now();
+        long[] startDays = startDates.stream().mapToLong(date -> PredictionScorer.daysUntil(today, date)).toArray();
+        int[] capacityValues = capacities.stream().mapToInt(Integer::intValue).toArray();
+        boolean[] freeValues = toBooleanArray(freeOptions);
+        boolean[] featuredValues = toBooleanArray(featuredOptions);
+
+        int cells = startDays.length * capacityValues.length * freeValues.length * featuredValues.length;
+        int[] probability = new int[cells];
+        int[] expected = new int[cells];
+        PredictionScorer.scoreGrid(startDays, capacityValues, freeValues, featuredValues,
+                event.getRegisteredCount(), event.getInterestedCount(), event.getViewsCount(),
+                event.getIsTrending() != null && event.getIsTrending(), probability, expected);
+
+        return PredictionSimulationDTO.builder()
+                .eventId(eventId)
+                .startDates(startDates)
+                .capacities(capacities)
+                .isFree(freeOptions)
+                .featured(featuredOptions)
+                .probability(probability)
+                .estimatedExpected(expected)
+                .build();
+    }
+
+    /**
+     * Get the stored AI insight of an event's prediction.
+     * Insights are generated in the background; null until the first one exists.
+     */
+    public String getPredictionInsight(UUID eventId) {
+        return predictionRepository.findLatestInsightByEventId(eventId).orElse(null);
     }
 
     // Helper methods
@@ -118,70 +264,67 @@ public class PredictionService {
         List<PredictionFactorDTO> factors = new ArrayList<>();
 
         // Time until event factor
-        long daysUntil = ChronoUnit.DAYS.between(java.time.LocalDate.now(), event.getStartDate());
+        long daysUntil = PredictionScorer.daysUntil(LocalDate.now(), event.getStartDate());
         factors.add(PredictionFactorDTO.builder()
                 .name("Time Until Event")
                 .type(com.predictifylabs.backend.domain.model.FactorType.POSITIVE)
                 .impact(daysUntil < 7 ? com.predictifylabs.backend.domain.model.FactorImpact.HIGH :
                         daysUntil < 30 ? com.predictifylabs.backend.domain.model.FactorImpact.MEDIUM :
                                 com.predictifylabs.backend.domain.model.FactorImpact.LOW)
-                .weight(BigDecimal.valueOf(0.2))
-                .score(BigDecimal.valueOf(Math.max(0, 100 - daysUntil)))
+                .weight(BigDecimal.valueOf(PredictionScorer.TIME_WEIGHT))
+                .score(BigDecimal.valueOf(PredictionScorer.timeScore(daysUntil)))
                 .description(daysUntil + " days until event")
                 .build());
 
         // Registration rate factor
-        double registrationRate = event.getCapacity() > 0 ?
-                (double) event.getRegisteredCount() / event.getCapacity() * 100 : 0;
+        double registrationRate = PredictionScorer.registrationRate(event.getCapacity(), event.getRegisteredCount());
         factors.add(PredictionFactorDTO.builder()
                 .name("Registration Rate")
                 .type(com.predictifylabs.backend.domain.model.FactorType.POSITIVE)
                 .impact(registrationRate > 70 ? com.predictifylabs.backend.domain.model.FactorImpact.HIGH :
                         registrationRate > 40 ? com.predictifylabs.backend.domain.model.FactorImpact.MEDIUM :
                                 com.predictifylabs.backend.domain.model.FactorImpact.LOW)
-                .weight(BigDecimal.valueOf(0.3))
+                .weight(BigDecimal.valueOf(PredictionScorer.REGISTRATION_WEIGHT))
                 .score(BigDecimal.valueOf(registrationRate))
                 .description(String.format("%.1f%% of capacity registered", registrationRate))
                 .build());
 
         // Interest factor
-        int interestScore = event.getInterestedCount() > 0 ?
-                Math.min(100, event.getInterestedCount() * 2) : 0;
+        int interestScore = PredictionScorer.interestScore(event.getInterestedCount());
         factors.add(PredictionFactorDTO.builder()
                 .name("Interest Level")
                 .type(com.predictifylabs.backend.domain.model.FactorType.POSITIVE)
                 .impact(interestScore > 50 ? com.predictifylabs.backend.domain.model.FactorImpact.HIGH :
                         interestScore > 20 ? com.predictifylabs.backend.domain.model.FactorImpact.MEDIUM :
                                 com.predictifylabs.backend.domain.model.FactorImpact.LOW)
-                .weight(BigDecimal.valueOf(0.15))
+                .weight(BigDecimal.valueOf(PredictionScorer.INTEREST_WEIGHT))
                 .score(BigDecimal.valueOf(interestScore))
                 .description(event.getInterestedCount() + " people interested")
                 .build());
 
         // Views factor
-        int viewsScore = event.getViewsCount() > 0 ?
-                Math.min(100, event.getViewsCount() / 10) : 0;
+        int viewsScore = PredictionScorer.visibilityScore(event.getViewsCount());
         factors.add(PredictionFactorDTO.builder()
                 .name("Visibility")
                 .type(com.predictifylabs.backend.domain.model.FactorType.POSITIVE)
                 .impact(viewsScore > 50 ? com.predictifylabs.backend.domain.model.FactorImpact.HIGH :
                         viewsScore > 20 ? com.predictifylabs.backend.domain.model.FactorImpact.MEDIUM :
                                 com.predictifylabs.backend.domain.model.FactorImpact.LOW)
-                .weight(BigDecimal.valueOf(0.1))
+                .weight(BigDecimal.valueOf(PredictionScorer.VISIBILITY_WEIGHT))
                 .score(BigDecimal.valueOf(viewsScore))
                 .description(event.getViewsCount() + " views")
                 .build());
 
         // Price factor
         boolean isFree = event.getIsFree() != null && event.getIsFree();
-        int priceScore = isFree ? 80 : 50;
+        int priceScore = PredictionScorer.priceScore(isFree);
         factors.add(PredictionFactorDTO.builder()
                 .name("Price Accessibility")
                 .type(isFree ? com.predictifylabs.backend.domain.model.FactorType.POSITIVE :
                         com.predictifylabs.backend.domain.model.FactorType.NEUTRAL)
                 .impact(isFree ? com.predictifylabs.backend.domain.model.FactorImpact.HIGH :
                         com.predictifylabs.backend.domain.model.FactorImpact.MEDIUM)
-                .weight(BigDecimal.valueOf(0.15))
+                .weight(BigDecimal.valueOf(PredictionScorer.PRICE_WEIGHT))
                 .score(BigDecimal.valueOf(priceScore))
                 .description(isFree ? "Free event" : "Paid event")
                 .build());
@@ -189,7 +332,7 @@ public class PredictionService {
         // Featured/Trending factor
         boolean isFeatured = event.getIsFeatured() != null && event.getIsFeatured();
         boolean isTrending = event.getIsTrending() != null && event.getIsTrending();
-        int promotionScore = (isFeatured ? 50 : 0) + (isTrending ? 50 : 0);
+        int promotionScore = PredictionScorer.promotionScore(isFeatured, isTrending);
         factors.add(PredictionFactorDTO.builder()
                 .name("Promotion Status")
                 .type(promotionScore > 0 ? com.predictifylabs.backend.domain.model.FactorType.POSITIVE :
@@ -197,7 +340,7 @@ public class PredictionService {
                 .impact(promotionScore > 50 ? com.predictifylabs.backend.domain.model.FactorImpact.HIGH :
                         promotionScore > 0 ? com.predictifylabs.backend.domain.model.FactorImpact.MEDIUM :
                                 com.predictifylabs.backend.domain.model.FactorImpact.LOW)
-                .weight(BigDecimal.valueOf(0.1))
+                .weight(BigDecimal.valueOf(PredictionScorer.PROMOTION_WEIGHT))
                 .score(BigDecimal.valueOf(promotionScore))
                 .description(isFeatured ? "Featured event" : (isTrending ? "Trending event" : "Standard listing"))
                 .build());
@@ -217,6 +360,18 @@ public class PredictionService {
         return totalWeight > 0 ? (int) (weightedSum / totalWeight) : 50;
     }
 
+    private static <T> List<T> axisOrDefault(List<T> axis, T currentValue) {
+        return axis == null || axis.isEmpty() ? List.of(currentValue) : axis.stream().distinct().toList();
+    }
+
+    private static boolean[] toBooleanArray(List<Boolean> values) {
+        boolean[] result = new boolean[values.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = values.get(i);
+        }
+        return result;
+    }
+
     private PredictionLevel determinePredictionLevel(int probability) {
         if (probability >= 65) return PredictionLevel.HIGH;
         if (probability >= 35) return PredictionLevel.MEDIUM;
@@ -224,9 +379,7 @@ public class PredictionService {
     }
 
     private int calculateExpectedAttendance(int capacity, int probability, int currentRegistrations) {
-        int baseExpected = (capacity * probability) / 100;
-        // Weight current registrations more heavily
-        return (baseExpected + currentRegistrations * 2) / 3;
+        return PredictionScorer.expectedAttendance(capacity, probability, currentRegistrations);
     }
 
     private short calculateConfidence(EventEntity event) {
@@ -251,29 +404,23 @@ public class PredictionService {
 
     private double calculateTrendChange(EventEntity event) {
         // Simplified trend change calculation
-        double registrationRate = event.getCapacity() > 0 ?
-                (double) event.getRegisteredCount() / event.getCapacity() * 100 : 0;
+        double registrationRate = PredictionScorer.registrationRate(event.getCapacity(), event.getRegisteredCount());
         return registrationRate > 50 ? 5.0 : (registrationRate > 25 ? 0.0 : -3.0);
     }
 
-    private String buildPredictionContext(EventEntity event, EventPredictionEntity prediction) {
-        StringBuilder context = new StringBuilder();
-        context.append("Event: ").append(event.getTitle()).append("\n");
-        context.append("Category: ").append(event.getCategory()).append("\n");
-        context.append("Type: ").append(event.getType()).append("\n");
-        context.append("Capacity: ").append(event.getCapacity()).append("\n");
-        context.append("Registered: ").append(event.getRegisteredCount()).append("\n");
-        context.append("Interested: ").append(event.getInterestedCount()).append("\n");
-        context.append("Views: ").append(event.getViewsCount()).append("\n");
-        context.append("Is Free: ").append(event.getIsFree()).append("\n");
-        context.append("Start Date: ").append(event.getStartDate()).append("\n");
-
-        if (prediction != null) {
-            context.append("Predicted Probability: ").append(prediction.getProbability()).append("%\n");
-            context.append("Prediction Level: ").append(prediction.getLevel()).append("\n");
+    /**
+     * A change is material when the level flips or probability or expected attendance move past the thresholds
+     */
+    private boolean isMaterialChange(EventPredictionEntity previous, EventPredictionEntity current) {
+        if (previous.getLevel() != current.getLevel()) {
+            return true;
         }
-
-        return context.toString();
+        if (Math.abs(previous.getProbability() - current.getProbability()) >= materialProbabilityChange) {
+            return true;
+        }
+        int previousExpected = Math.max(1, previous.getEstimatedExpected());
+        return Math.abs(current.getEstimatedExpected() - previous.getEstimatedExpected())
+                >= previousExpected * materialExpectedChangeRatio;
     }
 
     private PredictionDTO toDTO(EventPredictionEntity prediction) {
@@ -0,0 +1,201 @@
+package com.predictifylabs.backend.application.service;
+
+import com.predictifylabs.backend.application.ports.output.AiPrompt;
+import com.predictifylabs.backend.domain.model.AiUseCase;
+import com.predictifylabs.backend.infrastructure.config.AiPromptProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds prompts that fit the input token budget of their use case.
+ * Field values are whitespace-normalised and capped individually; if the prompt is still over
+ * budget, the longest field is shortened first, repeatedly, until it fits. Shortening keeps whole
+ * sentences where it can, otherwise whole words, and marks the cut, so the same input always
+ * yields the same prompt (and the same cache key).
+ */
+@Component
+@RequiredArgsConstructor
+public class PromptBuilder {
+
+    static final String TRUNCATION_MARK = " [...]";
+
+    private static final int MIN_FIELD_TOKENS = 16;
+
+    private final AiPromptProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Start a prompt for a use case; the system instruction counts against the budget but is never shortened
+     */
+    public Draft draft(AiUseCase useCase, String systemInstruction) {
+        return new Draft(useCase, systemInstruction);
+    }
+
+    /**
+     * Estimated token count of a text
+     */
+    public int estimateTokens(String text) {
+        return text == null ? 0 : (text.length() + properties.getCharsPerToken() - 1) / properties.getCharsPerToken();
+    }
+
+    public final class Draft {
+
+        private final AiUseCase useCase;
+        private final String systemInstruction;
+        private final List<Part> parts = new ArrayList<>();
+        private boolean truncated;
+
+        private Draft(AiUseCase useCase, String systemInstruction) {
+            this.useCase = useCase;
+            this.systemInstruction = systemInstruction == null ? null : systemInstruction.strip();
+        }
+
+        /**
+         * A "Label: value" line; blank values are left out
+         */
+        public Draft field(String label, Object value, int maxTokens) {
+            if (value == null || value.toString().isBlank()) {
+                return this;
+            }
+            parts.add(new Part(label + ": ", cap(value.toString().strip().replaceAll("\\s+", " "), maxTokens)));
+            return this;
+        }
+
+        /**
+         * Free text kept with its line breaks; runs of spaces and blank lines are collapsed
+         */
+        public Draft text(String value, int maxTokens) {
+            if (value == null || value.isBlank()) {
+                return this;
+            }
+            String normalised = value.strip()
+                    .replaceAll("[ \\t\\x0B\\f\\r]+", " ")
+                    .replaceAll(" ?\\n[ \\n]*", "\n");
+            parts.add(new Part("", cap(normalised, maxTokens)));
+            return this;
+        }
+
+        /**
+         * Free text limited only by the prompt budget
+         */
+        public Draft text(String value) {
+            return text(value, properties.budgetFor(useCase));
+        }
+
+        /**
+         * A line that is never shortened, e.g. a section header
+         */
+        public Draft line(String value) {
+            parts.add(new Part(value, null));
+            return this;
+        }
+
+        public AiPrompt build() {
+            int budgetChars = properties.budgetFor(useCase) * properties.getCharsPerToken();
+            int excess = length() + (systemInstruction == null ? 0 : systemInstruction.length()) - budgetChars;
+            int minChars = MIN_FIELD_TOKENS * properties.getCharsPerToken();
+
+            while (excess > 0) {
+                Part longest = null;
+                for (Part part : parts) {
+                    if (part.value != null && part.value.length() > minChars
+                            && (longest == null || part.value.length() > longest.value.length())) {
+                        longest = part;
+                    }
+                }
+                if (longest == null) {
+                    break;
+                }
+                int before = longest.value.length();
+                longest.value = shorten(longest.value, Math.max(minChars, before - excess));
+                truncated = true;
+                excess -= before - longest.value.length();
+                if (before == longest.value.length()) {
+                    break;
+                }
+            }
+
+            StringBuilder content = new StringBuilder();
+            for (Part part : parts) {
+                if (!content.isEmpty()) {
+                    content.append('\n');
+                }
+                content.append(part.prefix);
+                if (part.value != null) {
+                    content.append(part.value);
+                }
+            }
+
+            var prompt = new AiPrompt(useCase, systemInstruction, content.toString());
+            recordSize(prompt);
+            return prompt;
+        }
+
+        private String cap(String value, int maxTokens) {
+            int maxChars = maxTokens * properties.getCharsPerToken();
+            if (value.length() <= maxChars) {
+                return value;
+            }
+            truncated = true;
+            return shorten(value, maxChars);
+        }
+
+        private int length() {
+            int length = Math.max(0, parts.size() - 1);
+            for (Part part : parts) {
+                length += part.prefix.length() + (part.value == null ? 0 : part.value.length());
+            }
+            return length;
+        }
+
+        private void recordSize(AiPrompt prompt) {
+            DistributionSummary.builder("ai.prompt.tokens.estimated")
+                    .description("Estimated input tokens of built prompts")
+                    .tag("use_case", useCase.name())
+                    .register(meterRegistry)
+                    .record(estimateTokens(prompt.systemInstruction()) + estimateTokens(prompt.content()));
+            if (truncated) {
+                meterRegistry.counter("ai.prompt.truncated", "use_case", useCase.name()).increment();
+            }
+        }
+    }
+
+    /**
+     * Cut text to at most maxChars, mark included: at a sentence end in the second half of the
+     * allowance if there is one, else at a word boundary, else mid-word
+     */
+    static String shorten(String value, int maxChars) {
+        if (value.length() <= maxChars) {
+            return value;
+        }
+        int limit = Math.max(0, maxChars - TRUNCATION_MARK.length());
+        String head = value.substring(0, limit);
+
+        int sentenceEnd = Math.max(head.lastIndexOf(". "), Math.max(head.lastIndexOf("! "), head.lastIndexOf("? ")));
+        sentenceEnd = Math.max(sentenceEnd, head.lastIndexOf('\n') - 1);
+        if (sentenceEnd >= limit / 2) {
+            return head.substring(0, sentenceEnd + 1) + TRUNCATION_MARK;
+        }
+        int wordEnd = head.lastIndexOf(' ');
+        if (wordEnd >= limit / 2) {
+            return head.substring(0, wordEnd) + TRUNCATION_MARK;
+        }
+        return head + TRUNCATION_MARK;
+    }
+
+    private static final class Part {
+
+        private final String prefix;
+        private String value;
+
+        private Part(String prefix, String value) {
+            this.prefix = prefix;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.predictifylabs.backend.application.service;
+
+import com.predictifylabs.backend.infrastructure.adapters.output.persistence.repository.RefreshTokenRepository;
+import com.predictifylabs.backend.infrastructure.adapters.output.persistence.repository.RefreshTokenRepository.PurgeKey;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Background purge of refresh tokens that can no longer be used: expired ones, and revoked ones
+ * once the retention period is over (until then a reused revoked token is still recognised).
+ * Tokens are deleted in chunks walked in index order with a keyset cursor, each chunk in its own
+ * transaction, so a run never holds many rows or rescans the ones it already removed.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokenPurgeService {
+
+    private static final OffsetDateTime FIRST_AT = OffsetDateTime.ofInstant(Instant.EPOCH, ZoneOffset.UTC);
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${application.security.refresh-tokens.purge.enabled:true}")
+    private boolean enabled;
+
+    @Value("${application.security.refresh-tokens.purge.revoked-retention:P7D}")
+    private Duration revokedRetention;
+
+    @Value("${application.security.refresh-tokens.purge.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${application.security.refresh-tokens.purge.pause-between-batches-ms:20}")
+    private long pauseBetweenBatchesMs;
+
+    @Scheduled(cron = "${application.security.refresh-tokens.purge.cron:0 15 * * * *}")
+    public void purge() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            var now = OffsetDateTime.now(ZoneOffset.UTC);
+            long expired = purgeChunks((afterAt, afterId) ->
+                    refreshTokenRepository.findExpiredAfter(now, afterAt, afterId, PageRequest.of(0, batchSize)),
+                    "expired");
+            var revokedBefore = now.minus(revokedRetention);
+            long revoked = purgeChunks((afterAt, afterId) ->
+                    refreshTokenRepository.findRevokedAfter(revokedBefore, afterAt, afterId, PageRequest.of(0, batchSize)),
+                    "revoked");
+            if (expired > 0 || revoked > 0) {
+                log.info("Refresh token purge finished: {} expired and {} revoked tokens removed", expired, revoked);
+            }
+        } catch (Exception e) {
+            log.error("Refresh token purge failed", e);
+        }
+    }
+
+    private long purgeChunks(ChunkLoader loader, String reason) {
+        var purgedCounter = meterRegistry.counter("auth.refresh_tokens.purged", "reason", reason);
+        long total = 0;
+        OffsetDateTime afterAt = FIRST_AT;
+        UUID afterId = FIRST_ID;
+        try {
+            while (true) {
+                List<PurgeKey> chunk = loader.load(afterAt, afterId);
+                if (chunk.isEmpty()) {
+                    return total;
+                }
+                int deleted = refreshTokenRepository.deleteByIds(chunk.stream().map(PurgeKey::getId).toList());
+                total += deleted;
+                purgedCounter.increment(deleted);
+
+                var last = chunk.get(chunk.size() - 1);
+                afterAt = last.getAt();
+                afterId = last.getId();
+                if (chunk.size() < batchSize) {
+                    return total;
+                }
+                pause();
+            }
+        } finally {
+            DistributionSummary.builder("auth.refresh_tokens.purge.run")
+                    .description("Refresh tokens removed per purge run")
+                    .tag("reason", reason)
+                    .register(meterRegistry)
+                    .record(total);
+        }
+    }
+
+    private void pause() {
+        if (pauseBetweenBatchesMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(pauseBetweenBatchesMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Refresh token purge interrupted", e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChunkLoader {
+        List<PurgeKey> load(OffsetDateTime afterAt, UUID afterId);
+    }
+}
@@ -0,0 +1,81 @@
+package com.predictifylabs.backend.application.service;
+
+import com.predictifylabs.backend.domain.model.Role;
+import com.predictifylabs.backend.infrastructure.adapters.output.persistence.repository.ProtectedRouteRepository;
+import com.predictifylabs.backend.infrastructure.adapters.output.persistence.repository.RolePermissionRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Frontend route authorization from an in-memory {@link RouteTable}, replacing the
+ * can_access_route and get_accessible_routes database functions on the request path.
+ * The table is rebuilt at startup, periodically and on demand, and swapped in one write only
+ * when its content changed; until the first load succeeds every non-public check is denied.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RouteAuthorizationService {
+
+    private final ProtectedRouteRepository routeRepository;
+    private final RolePermissionRepository rolePermissionRepository;
+    private final MeterRegistry meterRegistry;
+
+    private volatile RouteTable table = RouteTable.EMPTY;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("security.routes.loaded", this, service -> service.table.size())
+                .description("Active protected routes in the compiled route table")
+                .register(meterRegistry);
+    }
+
+    public RouteTable.Decision check(String path, Role role) {
+        return table.check(path, role);
+    }
+
+    /**
+     * Accessible routes of a role, with the table version they come from
+     */
+    public AccessibleRoutes accessibleRoutes(Role role) {
+        var current = table;
+        return new AccessibleRoutes(current.version(), current.accessibleRoutes(role));
+    }
+
+    public record AccessibleRoutes(String version, List<RouteTable.Route> routes) {
+    }
+
+    /**
+     * Reload routes and grants; returns whether the table changed
+     */
+    public synchronized boolean reload() {
+        var compiled = RouteTable.compile(routeRepository.findByIsActiveTrue(), rolePermissionRepository.findAllGrants());
+        if (compiled.version().equals(table.version())) {
+            return false;
+        }
+        table = compiled;
+        meterRegistry.counter("security.routes.reloads").increment();
+        log.info("Route table {} loaded with {} routes", compiled.version(), compiled.size());
+        return true;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${application.security.routes.refresh-interval:PT5M}",
+            initialDelayString = "${application.security.routes.refresh-interval:PT5M}")
+    public void refresh() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.warn("Could not reload route table, keeping version {}: {}", table.version(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.predictifylabs.backend.application.service;
+
+import com.predictifylabs.backend.domain.model.Role;
+import com.predictifylabs.backend.infrastructure.adapters.output.persistence.entity.ProtectedRouteEntity;
+import com.predictifylabs.backend.infrastructure.adapters.output.persistence.repository.RolePermissionRepository.Grant;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable, compiled form of protected_routes and role_permissions.
+ * Route paths are held in a segment trie where ":name" segments match any value, literal segments
+ * taking precedence. Each role's permissions and each route's required permissions are bitsets,
+ * so an access check is a trie walk plus a few word operations, with the same rules as the
+ * can_access_route database function. The routes each role can access are computed up front.
+ */
+public final class RouteTable {
+
+    private static final Role[] ROLES = Role.values();
+    private static final int ANONYMOUS = ROLES.length;
+
+    public static final RouteTable EMPTY = compile(List.of(), List.of());
+
+    private final Node root;
+    private final int size;
+    private final List<List<Route>> accessible;
+    private final String version;
+
+    /**
+     * A route as shown to clients
+     */
+    public record Route(String path, String name, String description, boolean isPublic,
+                        String redirectUnauthorized, String redirectForbidden) {
+    }
+
+    /**
+     * Outcome of an access check; route is null when no active route matches the path
+     */
+    public record Decision(Route route, boolean allowed) {
+    }
+
+    private record Rule(Route route, boolean isPublic, int allowedRoles, long[] required, boolean requireAll,
+                        boolean[] allowedByRole) {
+    }
+
+    private static final class Node {
+        private Map<String, Node> children = new HashMap<>();
+        private Node param;
+        private Rule rule;
+    }
+
+    private RouteTable(Node root, int size, List<List<Route>> accessible, String version) {
+        this.root = root;
+        this.size = size;
+        this.accessible = accessible;
+        this.version = version;
+    }
+
+    /**
+     * Compile active routes and role grants. Roles and permissions unknown to the application are ignored.
+     */
+    public static RouteTable compile(List<ProtectedRouteEntity> routes, List<Grant> grants) {
+        var sortedRoutes = routes.stream()
+                .sorted(Comparator.comparing((ProtectedRouteEntity r) -> r.getSortOrder() != null ? r.getSortOrder() : 0)
+                        .thenComparing(ProtectedRouteEntity::getPath))
+                .toList();
+        var sortedGrants = grants.stream()
+                .sorted(Comparator.comparing(Grant::getRole).thenComparing(Grant::getPermissionId))
+                .toList();
+
+        // Bit positions for every permission referenced anywhere
+        Map<String, Integer> bits = new HashMap<>();
+        sortedGrants.forEach(grant -> bits.putIfAbsent(grant.getPermissionId(), bits.size()));
+        sortedRoutes.forEach(route -> Arrays.stream(orEmpty(route.getRequiredPermissions()))
+                .forEach(permission -> bits.putIfAbsent(permission, bits.size())));
+        int words = (bits.size() + 63) / 64;
+
+        long[][] rolePermissions = new long[ROLES.length][words];
+        for (Grant grant : sortedGrants) {
+            Role role = parseRole(grant.getRole());
+            if (role != null) {
+                set(rolePermissions[role.ordinal()], bits.get(grant.getPermissionId()));
+            }
+        }
+
+        var digest = sha256();
+        Node root = new Node();
+        List<List<Route>> accessible = new ArrayList<>();
+        for (int i = 0; i <= ROLES.length; i++) {
+            accessible.add(new ArrayList<>());
+        }
+        for (ProtectedRouteEntity entity : sortedRoutes) {
+            var route = new Route(entity.getPath(), entity.getName(), entity.getDescription(),
+                    Boolean.TRUE.equals(entity.getIsPublic()),
+                    entity.getRedirectUnauthorized(), entity.getRedirectForbidden());
+            int allowedRoles = 0;
+            for (String name : orEmpty(entity.getAllowedRoles())) {
+                Role role = parseRole(name);
+                if (role != null) {
+                    allowedRoles |= 1 << role.ordinal();
+                }
+            }
+            long[] required = new long[words];
+            String[] requiredPermissions = orEmpty(entity.getRequiredPermissions());
+            for (String permission : requiredPermissions) {
+                set(required, bits.get(permission));
+            }
+
+            boolean[] allowedByRole = new boolean[ROLES.length];
+            var rule = new Rule(route, route.isPublic(), allowedRoles, required,
+                    Boolean.TRUE.equals(entity.getRequireAllPermissions()), allowedByRole);
+            for (Role role : ROLES) {
+                allowedByRole[role.ordinal()] = evaluate(rule, rolePermissions[role.ordinal()], role);
+                if (allowedByRole[role.ordinal()]) {
+                    accessible.get(role.ordinal()).add(route);
+                }
+            }
+            if (route.isPublic()) {
+                accessible.get(ANONYMOUS).add(route);
+            }
+            insert(root, route.path(), rule);
+
+            update(digest, entity.getPath(), entity.getName(), entity.getDescription(), route.isPublic(),
+                    String.join(",", requiredPermissions), rule.requireAll(), allowedRoles,
+                    entity.getRedirectUnauthorized(), entity.getRedirectForbidden());
+        }
+        sortedGrants.forEach(grant -> update(digest, grant.getRole(), grant.getPermissionId()));
+
+        freeze(root);
+        String version = HexFormat.of().formatHex(digest.digest()).substring(0, 16);
+        return new RouteTable(root, sortedRoutes.size(), accessible.stream().map(List::copyOf).toList(), version);
+    }
+
+    /**
+     * Check access to a concrete path, e.g. /dashboard/events/42/edit; role is null for anonymous users
+     */
+    public Decision check(String path, Role role) {
+        Rule rule = find(root, segments(path), 0);
+        if (rule == null) {
+            return new Decision(null, false);
+        }
+        boolean allowed = rule.isPublic() || (role != null && rule.allowedByRole()[role.ordinal()]);
+        return new Decision(rule.route(), allowed);
+    }
+
+    /**
+     * Routes the role can access, in sort order; role is null for anonymous users
+     */
+    public List<Route> accessibleRoutes(Role role) {
+        return accessible.get(role != null ? role.ordinal() : ANONYMOUS);
+    }
+
+    /**
+     * Digest of the compiled content; equal tables have equal versions on every instance
+     */
+    public String version() {
+        return version;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static boolean evaluate(Rule rule, long[] granted, Role role) {
+        if (rule.isPublic()) {
+            return true;
+        }
+        if ((rule.allowedRoles() & (1 << role.ordinal())) == 0) {
+            return false;
+        }
+        long[] required = rule.required();
+        boolean any = false;
+        boolean empty = true;
+        for (int i = 0; i < required.length; i++) {
+            if (required[i] == 0) {
+                continue;
+            }
+            empty = false;
+            if (rule.requireAll() && (required[i] & ~granted[i]) != 0) {
+                return false;
+            }
+            any |= (required[i] & granted[i]) != 0;
+        }
+        return empty || rule.requireAll() || any;
+    }
+
+    private static Rule find(Node node, List<String> segments, int index) {
+        if (index == segments.size()) {
+            return node.rule;
+        }
+        Node literal = node.children.get(segments.get(index));
+        if (literal != null) {
+            Rule rule = find(literal, segments, index + 1);
+            if (rule != null) {
+                return rule;
+            }
+        }
+        return node.param != null ? find(node.param, segments, index + 1) : null;
+    }
+
+    private static void insert(Node root, String path, Rule rule) {
+        Node node = root;
+        for (String segment : segments(path)) {
+            if (segment.startsWith(":")) {
+                if (node.param == null) {
+                    node.param = new Node();
+                }
+                node = node.param;
+            } else {
+                node = node.children.computeIfAbsent(segment, ignored -> new Node());
+            }
+        }
+        node.rule = rule;
+    }
+
+    private static void freeze(Node node) {
+        node.children.values().forEach(RouteTable::freeze);
+        if (node.param != null) {
+            freeze(node.param);
+        }
+        node.children = Map.copyOf(node.children);
+    }
+
+    private static List<String> segments(String path) {
+        List<String> segments = new ArrayList<>();
+        if (path == null) {
+            return segments;
+        }
+        int end = path.indexOf('?');
+        end = end < 0 ? path.length() : end;
+        int start = 0;
+        while (start < end) {
+            int slash = path.indexOf('/', start);
+            int next = slash < 0 || slash > end ? end : slash;
+            if (next > start) {
+                segments.add(path.substring(start, next));
+            }
+            start = next + 1;
+        }
+        return segments;
+    }
+
+    private static Role parseRole(String name) {
+        try {
+            return name != null ? Role.valueOf(name.toUpperCase(Locale.ROOT)) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String[] orEmpty(String[] values) {
+        return values != null ? values : new String[0];
+    }
+
+    private static void set(long[] bitset, int bit) {
+        bitset[bit >>> 6] |= 1L << bit;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static void update(MessageDigest digest, Object... values) {
+        for (Object value : values) {
+            digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.predictifylabs.backend.application.service;
+
+import com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.user.SessionDTO;
+import com.predictifylabs.backend.infrastructure.adapters.output.persistence.entity.ActiveSessionEntity;
+import com.predictifylabs.backend.infrastructure.adapters.output.persistence.entity.RefreshTokenEntity;
+import com.predictifylabs.backend.infrastructure.adapters.output.persistence.entity.UserEntity;
+import com.predictifylabs.backend.infrastructure.adapters.output.persistence.repository.ActiveSessionRepository;
+import com.predictifylabs.backend.infrastructure.security.ClientInfo;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Login sessions (active_sessions), one per refresh token chain.
+ * Authenticated requests only record their session's activity time in memory; the latest time of
+ * each session is written once per flush interval with a batched UPDATE, so request traffic adds at
+ * most one write per active session per interval. Sessions idle for longer than the idle timeout are
+ * removed in bulk and their refresh tokens revoked.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SessionService {
+
+    private static final String UPDATE_ACTIVITY =
+            "UPDATE active_sessions SET last_activity_at = ? WHERE id = ? AND last_activity_at < ?";
+
+    private final ActiveSessionRepository sessionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    // Session id -> latest activity in epoch millis, not yet written
+    private final Map<UUID, Long> pendingActivity = new ConcurrentHashMap<>();
+
+    @Value("${application.security.sessions.idle-timeout:P3D}")
+    private Duration idleTimeout;
+
+    @Value("${application.security.sessions.flush-batch-size:500}")
+    private int flushBatchSize;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("sessions.activity.pending", pendingActivity, Map::size)
+                .description("Sessions with activity not yet written")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Open a session for a newly issued refresh token
+     */
+    public ActiveSessionEntity open(UserEntity user, RefreshTokenEntity refreshToken, ClientInfo client) {
+        return sessionRepository.save(ActiveSessionEntity.builder()
+                .user(user)
+                .refreshToken(refreshToken)
+                .deviceName(truncate(client.deviceName(), 255))
+                .deviceType(client.deviceType())
+                .browser(client.browser())
+                .os(client.os())
+                .ipAddress(client.ipAddress())
+                .expiresAt(refreshToken.getExpiresAt())
+                .build());
+    }
+
+    /**
+     * Carry the session of a rotated refresh token over to its replacement; empty if it had none
+     */
+    public Optional<UUID> rotate(UUID replacedTokenId, RefreshTokenEntity refreshToken) {
+        return sessionRepository.findByRefreshTokenId(replacedTokenId)
+                .map(session -> {
+                    sessionRepository.rotateRefreshToken(session.getId(), refreshToken.getId(), refreshToken.getExpiresAt());
+                    touch(session.getId());
+                    return session.getId();
+                });
+    }
+
+    /**
+     * Record activity of a session; called on every authenticated request, so memory only
+     */
+    public void touch(UUID sessionId) {
+        pendingActivity.merge(sessionId, System.currentTimeMillis(), Math::max);
+    }
+
+    /**
+     * End every session of a user
+     */
+    public void endAll(UUID userId) {
+        sessionRepository.expireAllByUser(userId, OffsetDateTime.now(ZoneOffset.UTC));
+    }
+
+    /**
+     * Open sessions of a user, most recently active first, including activity not written yet
+     */
+    public List<SessionDTO> getSessions(UUID userId, UUID currentSessionId) {
+        return sessionRepository.findActiveByUser(userId, OffsetDateTime.now(ZoneOffset.UTC)).stream()
+                .map(session -> {
+                    Long pending = pendingActivity.get(session.getId());
+                    var lastActivity = session.getLastActivityAt();
+                    if (pending != null && (lastActivity == null || pending > lastActivity.toInstant().toEpochMilli())) {
+                        lastActivity = OffsetDateTime.ofInstant(Instant.ofEpochMilli(pending), ZoneOffset.UTC);
+                    }
+                    return SessionDTO.builder()
+                            .id(session.getId())
+                            .deviceName(session.getDeviceName())
+                            .deviceType(session.getDeviceType())
+                            .browser(session.getBrowser())
+                            .os(session.getOs())
+                            .ipAddress(session.getIpAddress())
+                            .location(session.getLocation())
+                            .current(session.getId().equals(currentSessionId))
+                            .lastActivityAt(lastActivity)
+                            .createdAt(session.getCreatedAt())
+                            .expiresAt(session.getExpiresAt())
+                            .build();
+                })
+                .sorted((a, b) -> b.lastActivityAt().compareTo(a.lastActivityAt()))
+                .toList();
+    }
+
+    /**
+     * Write the latest pending activity of each session in batched updates
+     */
+    @Scheduled(fixedDelayString = "${application.security.sessions.flush-interval:PT1M}")
+    public void flush() {
+        List<Map.Entry<UUID, Long>> batch = new ArrayList<>();
+        for (UUID sessionId : pendingActivity.keySet()) {
+            Long at = pendingActivity.remove(sessionId);
+            if (at != null) {
+                batch.add(Map.entry(sessionId, at));
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_ACTIVITY, batch, flushBatchSize, (ps, entry) -> {
+                var at = OffsetDateTime.ofInstant(Instant.ofEpochMilli(entry.getValue()), ZoneOffset.UTC);
+                ps.setObject(1, at);
+                ps.setObject(2, entry.getKey());
+                ps.setObject(3, at);
+            });
+            meterRegistry.counter("sessions.activity.flushed").increment(batch.size());
+            log.debug("Wrote activity of {} sessions", batch.size());
+        } catch (Exception e) {
+            // Put the times back so they are written on the next flush
+            batch.forEach(entry -> pendingActivity.merge(entry.getKey(), entry.getValue(), Math::max));
+            log.warn("Could not write session activity, will retry: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Remove idle and expired sessions and revoke the refresh tokens of idle ones
+     */
+    @Scheduled(fixedDelayString = "${application.security.sessions.expire-interval:PT15M}")
+    public void expireIdle() {
+        // Write pending activity first, so sessions in use are not taken for idle
+        flush();
+        try {
+            var now = OffsetDateTime.now(ZoneOffset.UTC);
+            var idleBefore = now.minus(idleTimeout);
+            int revoked = sessionRepository.revokeTokensOfIdleSessions(idleBefore, now);
+            int removed = sessionRepository.deleteIdleOrExpired(idleBefore, now);
+            meterRegistry.counter("sessions.expired").increment(removed);
+            if (removed > 0) {
+                log.info("Removed {} idle or expired sessions, revoked {} refresh tokens", removed, revoked);
+            }
+        } catch (Exception e) {
+            log.error("Session expiry failed", e);
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+}
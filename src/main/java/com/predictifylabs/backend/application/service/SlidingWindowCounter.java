@@ -0,0 +1,74 @@
+package com.predictifylabs.backend.application.service;
+
+import java.util.Arrays;
+
+/**
+ * Request and token counts over a sliding window, kept in a ring of fixed-width buckets.
+ * Buckets older than the window are cleared lazily as time advances.
+ * Not thread-safe; callers hold the lock that guards the counter.
+ */
+final class SlidingWindowCounter {
+
+    private final long bucketNanos;
+    private final long[] requests;
+    private final long[] tokens;
+    private final long[] bucketIndex;
+
+    SlidingWindowCounter(long windowNanos, int buckets) {
+        this.bucketNanos = Math.max(1, windowNanos / buckets);
+        this.requests = new long[buckets];
+        this.tokens = new long[buckets];
+        this.bucketIndex = new long[buckets];
+        Arrays.fill(bucketIndex, Long.MIN_VALUE);
+    }
+
+    long requests(long now) {
+        expire(now);
+        long sum = 0;
+        for (long count : requests) {
+            sum += count;
+        }
+        return sum;
+    }
+
+    long tokens(long now) {
+        expire(now);
+        long sum = 0;
+        for (long count : tokens) {
+            sum += count;
+        }
+        return sum;
+    }
+
+    void add(long now, long requestCount, long tokenCount) {
+        expire(now);
+        int slot = slot(now);
+        requests[slot] += requestCount;
+        tokens[slot] += tokenCount;
+    }
+
+    boolean isEmpty(long now) {
+        return requests(now) == 0 && tokens(now) == 0;
+    }
+
+    private void expire(long now) {
+        long current = Math.floorDiv(now, bucketNanos);
+        for (int i = 0; i < bucketIndex.length; i++) {
+            if (bucketIndex[i] <= current - bucketIndex.length) {
+                requests[i] = 0;
+                tokens[i] = 0;
+                bucketIndex[i] = Long.MIN_VALUE;
+            }
+        }
+        int slot = slot(now);
+        if (bucketIndex[slot] != current) {
+            requests[slot] = 0;
+            tokens[slot] = 0;
+            bucketIndex[slot] = current;
+        }
+    }
+
+    private int slot(long now) {
+        return (int) Math.floorMod(Math.floorDiv(now, bucketNanos), bucketIndex.length);
+    }
+}
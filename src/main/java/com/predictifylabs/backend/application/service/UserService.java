@@ -4,6 +4,7 @@ import com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.user.Up
 import com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.user.UserDTO;
 import com.predictifylabs.backend.infrastructure.adapters.output.persistence.entity.UserEntity;
 import com.predictifylabs.backend.infrastructure.adapters.output.persistence.repository.UserRepository;
+import com.predictifylabs.backend.infrastructure.security.TokenVersionRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -22,6 +23,8 @@ import java.util.UUID;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final TokenVersionRegistry tokenVersions;
+    private final AuditService auditService;
 
     /**
      * Get user by ID
@@ -57,6 +60,7 @@ public class UserService {
 
         var user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
+        var before = AuditSnapshots.of(user);
 
         if (dto.name() != null) user.setName(dto.name());
         if (dto.avatar() != null) user.setAvatar(dto.avatar());
@@ -64,6 +68,7 @@ public class UserService {
         if (dto.location() != null) user.setLocation(dto.location());
 
         var saved = userRepository.save(user);
+        auditService.recordUpdate("users", userId, before, AuditSnapshots.of(saved));
         log.info("User profile updated for user {}", userId);
         return toDTO(saved);
     }
@@ -86,9 +91,13 @@ public class UserService {
 
         var user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
+        var before = AuditSnapshots.of(user);
 
         user.setIsActive(false);
         userRepository.save(user);
+        auditService.recordUpdate("users", userId, before, AuditSnapshots.of(user));
+        // Access tokens already issued must stop working now, not when they expire
+        tokenVersions.revokeTokens(userId);
         log.info("User {} deactivated", userId);
     }
 
@@ -101,9 +110,11 @@ public class UserService {
 
         var user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
+        var before = AuditSnapshots.of(user);
 
         user.setIsActive(true);
         userRepository.save(user);
+        auditService.recordUpdate("users", userId, before, AuditSnapshots.of(user));
         log.info("User {} reactivated", userId);
     }
 
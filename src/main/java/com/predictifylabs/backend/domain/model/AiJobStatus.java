@@ -0,0 +1,12 @@
+package com.predictifylabs.backend.domain.model;
+
+/**
+ * Asynchronous AI job status matching PostgreSQL enum ai_job_status
+ * Maps to: CREATE TYPE ai_job_status AS ENUM ('pending', 'running', 'completed', 'failed')
+ */
+public enum AiJobStatus {
+    PENDING, // Accepted, waiting for a generation slot
+    RUNNING, // Generation in progress
+    COMPLETED, // Result stored until it expires
+    FAILED // Generation failed or was interrupted
+}
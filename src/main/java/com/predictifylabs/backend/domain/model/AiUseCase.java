@@ -0,0 +1,11 @@
+package com.predictifylabs.backend.domain.model;
+
+/**
+ * Kinds of AI generation requested by the application.
+ * Used to pick per-use-case policies such as cache TTLs.
+ */
+public enum AiUseCase {
+    EVENT_DESCRIPTION, // Organizer-facing event description drafts
+    PREDICTION_INSIGHT, // Attendance insight for an event prediction
+    FREE_TEXT // Custom prompts
+}
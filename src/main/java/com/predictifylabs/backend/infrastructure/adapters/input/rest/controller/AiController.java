@@ -1,39 +1,83 @@
 package com.predictifylabs.backend.infrastructure.adapters.input.rest.controller;
 
 import com.predictifylabs.backend.application.ports.input.AiServiceUseCase;
+import com.predictifylabs.backend.application.ports.input.EventDescriptionCommand;
+import com.predictifylabs.backend.application.ports.output.AiPrompt;
+import com.predictifylabs.backend.application.ports.output.AiUnavailableException;
+import com.predictifylabs.backend.application.service.AiJobService;
+import com.predictifylabs.backend.application.service.AiQuotaService;
+import com.predictifylabs.backend.domain.model.AiUseCase;
+import com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.ai.AiJobDTO;
+import com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.ai.AiJobRequest;
+import com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.ai.AiUsageDTO;
 import com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.ai.GenerateEventDescriptionRequest;
 import com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.ai.GenerateTextRequest;
 import com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.ai.GenerateTextResponse;
+import com.predictifylabs.backend.infrastructure.adapters.output.persistence.entity.UserEntity;
+import com.predictifylabs.backend.infrastructure.adapters.output.persistence.repository.UserRepository;
+import com.predictifylabs.backend.infrastructure.security.AuthenticatedUser;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 @RestController
 @RequestMapping("/api/v1/ai")
 @RequiredArgsConstructor
+@Slf4j
 public class AiController {
 
     private final AiServiceUseCase aiService;
+    private final AiQuotaService aiQuotaService;
+    private final AiJobService aiJobService;
+    private final UserRepository userRepository;
 
     @Value("${application.ai.gemini.model:gemini-1.5-flash}")
     private String model;
 
+    @Value("${application.ai.streaming.timeout:PT2M}")
+    private Duration streamTimeout;
+
     /**
      * Generates free text based on a custom prompt.
      * POST /api/v1/ai/generate
      */
     @PostMapping("/generate")
     public ResponseEntity<GenerateTextResponse> generateText(
-            @Valid @RequestBody GenerateTextRequest request
+            @Valid @RequestBody GenerateTextRequest request,
+            Authentication auth
     ) {
+        var reservation = reserve(auth, request.getPrompt().length());
+        if (!reservation.allowed()) {
+            return quotaExceeded(reservation);
+        }
         String generatedText = aiService.generateText(request.getPrompt());
+        aiQuotaService.settle(reservation, generatedText.length());
 
         return ResponseEntity.ok(GenerateTextResponse.builder()
                 .generatedText(generatedText)
@@ -48,10 +92,15 @@ public class AiController {
      */
     @PostMapping("/generate/event-description")
     public ResponseEntity<GenerateTextResponse> generateEventDescription(
-            @Valid @RequestBody GenerateEventDescriptionRequest request
+            @Valid @RequestBody GenerateEventDescriptionRequest request,
+            Authentication auth
     ) {
-        String context = buildEventContext(request);
-        String generatedText = aiService.generateEventDescription(context);
+        var reservation = reserve(auth, inputLength(request));
+        if (!reservation.allowed()) {
+            return quotaExceeded(reservation);
+        }
+        String generatedText = aiService.generateEventDescription(toCommand(request));
+        aiQuotaService.settle(reservation, generatedText.length());
 
         return ResponseEntity.ok(GenerateTextResponse.builder()
                 .generatedText(generatedText)
@@ -60,20 +109,214 @@ public class AiController {
                 .build());
     }
 
-    private String buildEventContext(GenerateEventDescriptionRequest request) {
-        StringBuilder context = new StringBuilder();
-        context.append("Title: ").append(request.getEventTitle());
+    /**
+     * Streams free text for a custom prompt as server-sent "chunk" events, ending with "done".
+     * POST /api/v1/ai/generate/stream
+     */
+    @PostMapping(value = "/generate/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamText(@Valid @RequestBody GenerateTextRequest request,
+                                                 Authentication auth) {
+        var reservation = reserve(auth, request.getPrompt().length());
+        if (!reservation.allowed()) {
+            return quotaExceeded(reservation);
+        }
+        return ResponseEntity.ok(stream(reservation, onChunk -> aiService.streamText(request.getPrompt(), onChunk)));
+    }
+
+    /**
+     * Streams an event description as server-sent "chunk" events, ending with "done".
+     * POST /api/v1/ai/generate/event-description/stream
+     */
+    @PostMapping(value = "/generate/event-description/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamEventDescription(
+            @Valid @RequestBody GenerateEventDescriptionRequest request,
+            Authentication auth
+    ) {
+        var reservation = reserve(auth, inputLength(request));
+        if (!reservation.allowed()) {
+            return quotaExceeded(reservation);
+        }
+        return ResponseEntity.ok(stream(reservation, onChunk -> aiService.streamEventDescription(toCommand(request), onChunk)));
+    }
+
+    /**
+     * Starts a generation in the background and returns its job at once.
+     * POST /api/v1/ai/jobs
+     */
+    @PostMapping("/jobs")
+    public ResponseEntity<AiJobDTO> submitJob(
+            @Valid @RequestBody AiJobRequest request,
+            Authentication auth
+    ) {
+        boolean freeText = request.getUseCase() == AiUseCase.FREE_TEXT && request.getPrompt() != null;
+        boolean eventDescription = request.getUseCase() == AiUseCase.EVENT_DESCRIPTION
+                && request.getEventDescription() != null;
+        if (!freeText && !eventDescription) {
+            return ResponseEntity.badRequest().build();
+        }
 
-        if (request.getEventType() != null && !request.getEventType().isBlank()) {
-            context.append("\nEvent type: ").append(request.getEventType());
+        var user = AuthenticatedUser.of(auth);
+        int inputChars = freeText ? request.getPrompt().length() : inputLength(request.getEventDescription());
+        var reservation = aiQuotaService.tryAcquire(user.id(), user.role(), inputChars);
+        if (!reservation.allowed()) {
+            return quotaExceeded(reservation);
         }
-        if (request.getTechnologies() != null && !request.getTechnologies().isBlank()) {
-            context.append("\nTechnologies: ").append(request.getTechnologies());
+        try {
+            AiPrompt prompt = freeText
+                    ? aiService.buildTextPrompt(request.getPrompt())
+                    : aiService.buildEventDescriptionPrompt(toCommand(request.getEventDescription()));
+            var job = aiJobService.submit(user.id(), prompt, reservation);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/v1/ai/jobs/" + job.getId()))
+                    .body(job);
+        } catch (AiUnavailableException e) {
+            // A refused job's reservation is settled by the job service
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .build();
+        } catch (RuntimeException e) {
+            aiQuotaService.settle(reservation, 0);
+            throw e;
         }
-        if (request.getAdditionalContext() != null && !request.getAdditionalContext().isBlank()) {
-            context.append("\nAdditional context: ").append(request.getAdditionalContext());
+    }
+
+    /**
+     * Current state of a job, with its result once completed.
+     * GET /api/v1/ai/jobs/{jobId}
+     */
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<AiJobDTO> getJob(@PathVariable UUID jobId, Authentication auth) {
+        return aiJobService.getJob(jobId, AuthenticatedUser.of(auth).id())
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Sends the job as a "completed" or "failed" server-sent event once it finishes.
+     * If the job runs on another instance, or is still unfinished when the stream times out, a
+     * "pending" or "running" event is sent instead and the client should poll.
+     * GET /api/v1/ai/jobs/{jobId}/events
+     */
+    @GetMapping(value = "/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribeToJob(@PathVariable UUID jobId, Authentication auth) {
+        UUID userId = AuthenticatedUser.of(auth).id();
+        var job = aiJobService.getJob(jobId, userId);
+        if (job.isEmpty()) {
+            return ResponseEntity.notFound().build();
         }
+        var emitter = new SseEmitter(streamTimeout.toMillis());
+        emitter.onTimeout(() -> sendJob(emitter, aiJobService.getJob(jobId, userId).orElse(job.get())));
+        aiJobService.onFinished(job.get(), finished -> sendJob(emitter, finished));
+        return ResponseEntity.ok(emitter);
+    }
+
+    /**
+     * AI usage and limits of the current user.
+     * GET /api/v1/ai/usage/me
+     */
+    @GetMapping("/usage/me")
+    public ResponseEntity<AiUsageDTO> getMyUsage(
+            @RequestParam(defaultValue = "7") int days,
+            Authentication auth
+    ) {
+        var user = AuthenticatedUser.of(auth);
+        return ResponseEntity.ok(aiQuotaService.getUsage(user.id(), user.role(), days));
+    }
+
+    /**
+     * AI usage and limits of any user.
+     * GET /api/v1/ai/usage/{userId}
+     */
+    @GetMapping("/usage/{userId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AiUsageDTO> getUserUsage(
+            @PathVariable UUID userId,
+            @RequestParam(defaultValue = "7") int days
+    ) {
+        UserEntity user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        return ResponseEntity.ok(aiQuotaService.getUsage(user.getId(), user.getRole(), days));
+    }
+
+    private SseEmitter stream(AiQuotaService.Reservation reservation,
+                              Function<Consumer<String>, CompletableFuture<Void>> generation) {
+        var emitter = new SseEmitter(streamTimeout.toMillis());
+        var outputChars = new AtomicInteger();
+
+        var completion = generation.apply(chunk -> {
+            outputChars.addAndGet(chunk.length());
+            try {
+                emitter.send(SseEmitter.event().name("chunk").data(chunk, MediaType.TEXT_PLAIN));
+            } catch (IOException e) {
+                // Client went away; failing the callback stops the upstream stream
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        completion.whenComplete((ignored, error) -> {
+            aiQuotaService.settle(reservation, outputChars.get());
+            if (error == null) {
+                try {
+                    emitter.send(SseEmitter.event().name("done").data(model));
+                    emitter.complete();
+                } catch (IOException e) {
+                    emitter.completeWithError(e);
+                }
+            } else if (!completion.isCancelled()) {
+                log.warn("AI stream failed: {}", error.getMessage());
+                try {
+                    emitter.send(SseEmitter.event().name("error").data("Generation failed"));
+                } catch (IOException ignoredSendError) {
+                    // Client already disconnected
+                }
+                emitter.complete();
+            }
+        });
+
+        emitter.onTimeout(() -> completion.cancel(true));
+        emitter.onError(error -> completion.cancel(true));
+        return emitter;
+    }
+
+    /**
+     * Check the caller's quota before any prompt is built, so rejected calls cost nothing
+     */
+    private static void sendJob(SseEmitter emitter, AiJobDTO job) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .name(job.getStatus().name().toLowerCase())
+                    .data(job, MediaType.APPLICATION_JSON));
+            emitter.complete();
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        } catch (IllegalStateException e) {
+            // Already completed by the timeout or the finished callback
+        }
+    }
+
+    private AiQuotaService.Reservation reserve(Authentication auth, int inputChars) {
+        var user = AuthenticatedUser.of(auth);
+        return aiQuotaService.tryAcquire(user.id(), user.role(), inputChars);
+    }
+
+    private <T> ResponseEntity<T> quotaExceeded(AiQuotaService.Reservation reservation) {
+        log.info("AI quota exceeded for user {} ({})", reservation.userId(), reservation.reason());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(reservation.retryAfterSeconds()))
+                .build();
+    }
+
+    private static EventDescriptionCommand toCommand(GenerateEventDescriptionRequest request) {
+        return new EventDescriptionCommand(request.getEventTitle(), request.getEventType(),
+                request.getTechnologies(), request.getAdditionalContext());
+    }
+
+    private static int inputLength(GenerateEventDescriptionRequest request) {
+        return length(request.getEventTitle()) + length(request.getEventType())
+                + length(request.getTechnologies()) + length(request.getAdditionalContext());
+    }
 
-        return context.toString();
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
     }
 }
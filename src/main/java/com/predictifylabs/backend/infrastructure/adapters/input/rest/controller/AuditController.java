@@ -0,0 +1,73 @@
+package com.predictifylabs.backend.infrastructure.adapters.input.rest.controller;
+
+import com.predictifylabs.backend.application.service.AuditHistoryService;
+import com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.audit.AuditLogPageDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * REST Controller for reading the audit log (admin only)
+ */
+@RestController
+@RequestMapping("/api/v1/audit")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "Audit", description = "Audit log endpoints")
+public class AuditController {
+
+    private final AuditHistoryService auditHistoryService;
+
+    /**
+     * Changes of one entity, newest first. The range defaults to the last days up to now.
+     * GET /api/v1/audit/entities/events/{id}?from=2026-01-01T00:00:00Z&limit=50&cursor=...
+     */
+    @GetMapping("/entities/{entityType}/{entityId}")
+    @Operation(summary = "Get the audit history of an entity (admin only)")
+    public ResponseEntity<AuditLogPageDTO> getEntityHistory(
+            @PathVariable String entityType,
+            @PathVariable UUID entityId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return page(() -> auditHistoryService.getEntityHistory(entityType, entityId, from, to, cursor, limit));
+    }
+
+    /**
+     * Actions made by one user, newest first.
+     * GET /api/v1/audit/users/{userId}?from=...&to=...&limit=50&cursor=...
+     */
+    @GetMapping("/users/{userId}")
+    @Operation(summary = "Get the actions made by a user (admin only)")
+    public ResponseEntity<AuditLogPageDTO> getUserHistory(
+            @PathVariable UUID userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return page(() -> auditHistoryService.getUserHistory(userId, from, to, cursor, limit));
+    }
+
+    private static ResponseEntity<AuditLogPageDTO> page(Supplier<AuditLogPageDTO> query) {
+        try {
+            return ResponseEntity.ok(query.get());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
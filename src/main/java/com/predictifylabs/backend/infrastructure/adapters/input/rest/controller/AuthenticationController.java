@@ -3,17 +3,30 @@ package com.predictifylabs.backend.infrastructure.adapters.input.rest.controller
 import com.predictifylabs.backend.application.service.AuthenticationService;
 import com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.auth.AuthenticationRequest;
 import com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.auth.AuthenticationResponse;
+import com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.auth.RefreshTokenRequest;
 import com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.auth.RegisterRequest;
+import com.predictifylabs.backend.infrastructure.security.ClientInfo;
+import com.predictifylabs.backend.infrastructure.security.InvalidRefreshTokenException;
+import com.predictifylabs.backend.infrastructure.security.LoginThrottledException;
+import com.predictifylabs.backend.infrastructure.security.PasswordHashingBusyException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.Duration;
+import java.util.function.Supplier;
+
 /**
  * REST Controller for authentication operations
  */
@@ -25,27 +38,68 @@ public class AuthenticationController {
 
     private final AuthenticationService service;
 
+    @Value("${application.security.password.retry-after:PT1S}")
+    private Duration retryAfter;
+
     @PostMapping("/register")
     @Operation(summary = "Register a new user")
     public ResponseEntity<AuthenticationResponse> register(
-            @RequestBody @Valid RegisterRequest request
+            @RequestBody @Valid RegisterRequest request,
+            HttpServletRequest httpRequest
     ) {
-        return ResponseEntity.ok(service.register(request));
+        return withHashingLimit(() -> service.register(request, ClientInfo.from(httpRequest)));
     }
 
     @PostMapping("/login")
     @Operation(summary = "Login with email and password")
     public ResponseEntity<AuthenticationResponse> login(
-            @RequestBody @Valid AuthenticationRequest request
+            @RequestBody @Valid AuthenticationRequest request,
+            HttpServletRequest httpRequest
     ) {
-        return ResponseEntity.ok(service.authenticate(request));
+        return withHashingLimit(() -> service.authenticate(request, ClientInfo.from(httpRequest)));
     }
 
     @PostMapping("/authenticate")
     @Operation(summary = "Authenticate user (alias for login)")
     public ResponseEntity<AuthenticationResponse> authenticate(
-            @RequestBody @Valid AuthenticationRequest request
+            @RequestBody @Valid AuthenticationRequest request,
+            HttpServletRequest httpRequest
+    ) {
+        return withHashingLimit(() -> service.authenticate(request, ClientInfo.from(httpRequest)));
+    }
+
+    @PostMapping("/refresh")
+    @Operation(summary = "Exchange a refresh token for new access and refresh tokens")
+    public ResponseEntity<AuthenticationResponse> refresh(
+            @RequestBody @Valid RefreshTokenRequest request,
+            HttpServletRequest httpRequest
     ) {
-        return ResponseEntity.ok(service.authenticate(request));
+        try {
+            return ResponseEntity.ok(service.refresh(request, ClientInfo.from(httpRequest)));
+        } catch (InvalidRefreshTokenException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+    }
+
+    /**
+     * 429 when password hashing is saturated or the login is throttled, so clients back off instead of piling up.
+     * 403 for a deactivated account.
+     */
+    private ResponseEntity<AuthenticationResponse> withHashingLimit(Supplier<AuthenticationResponse> call) {
+        try {
+            return ResponseEntity.ok(call.get());
+        } catch (PasswordHashingBusyException e) {
+            return tooManyRequests(Math.max(1, retryAfter.toSeconds()));
+        } catch (LoginThrottledException e) {
+            return tooManyRequests(e.getRetryAfterSeconds());
+        } catch (DisabledException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+    }
+
+    private static ResponseEntity<AuthenticationResponse> tooManyRequests(long retryAfterSeconds) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .build();
     }
 }
@@ -4,7 +4,7 @@ import com.predictifylabs.backend.application.service.EventService;
 import com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.event.CreateEventDTO;
 import com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.event.EventDTO;
 import com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.event.UpdateEventDTO;
-import com.predictifylabs.backend.infrastructure.adapters.output.persistence.repository.UserRepository;
+import com.predictifylabs.backend.infrastructure.security.AuthenticatedUser;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -15,6 +15,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
 
@@ -28,36 +29,38 @@ import java.util.UUID;
 public class EventController {
 
     private final EventService eventService;
-    private final UserRepository userRepository;
 
     @GetMapping
     @Operation(summary = "Get all upcoming events")
-    public ResponseEntity<List<EventDTO>> getUpcomingEvents() {
-        return ResponseEntity.ok(eventService.getUpcomingEvents());
+    public ResponseEntity<List<EventDTO>> getUpcomingEvents(@RequestParam(required = false) String include) {
+        return ResponseEntity.ok(withIncludes(eventService.getUpcomingEvents(), include));
     }
 
     @GetMapping("/upcoming")
     @Operation(summary = "Get upcoming published events")
-    public ResponseEntity<List<EventDTO>> getUpcoming() {
-        return ResponseEntity.ok(eventService.getUpcomingEvents());
+    public ResponseEntity<List<EventDTO>> getUpcoming(@RequestParam(required = false) String include) {
+        return ResponseEntity.ok(withIncludes(eventService.getUpcomingEvents(), include));
     }
 
     @GetMapping("/featured")
     @Operation(summary = "Get featured events")
-    public ResponseEntity<List<EventDTO>> getFeaturedEvents() {
-        return ResponseEntity.ok(eventService.getFeaturedEvents());
+    public ResponseEntity<List<EventDTO>> getFeaturedEvents(@RequestParam(required = false) String include) {
+        return ResponseEntity.ok(withIncludes(eventService.getFeaturedEvents(), include));
     }
 
     @GetMapping("/trending")
     @Operation(summary = "Get trending events")
-    public ResponseEntity<List<EventDTO>> getTrendingEvents() {
-        return ResponseEntity.ok(eventService.getTrendingEvents());
+    public ResponseEntity<List<EventDTO>> getTrendingEvents(@RequestParam(required = false) String include) {
+        return ResponseEntity.ok(withIncludes(eventService.getTrendingEvents(), include));
     }
 
     @GetMapping("/search")
     @Operation(summary = "Search events by keyword")
-    public ResponseEntity<List<EventDTO>> searchEvents(@RequestParam String keyword) {
-        return ResponseEntity.ok(eventService.searchEvents(keyword));
+    public ResponseEntity<List<EventDTO>> searchEvents(
+            @RequestParam String keyword,
+            @RequestParam(required = false) String include
+    ) {
+        return ResponseEntity.ok(withIncludes(eventService.searchEvents(keyword), include));
     }
 
     @GetMapping("/{id}")
@@ -75,9 +78,12 @@ public class EventController {
     @GetMapping("/my-events")
     @Operation(summary = "Get events created by current user (organizer)")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<List<EventDTO>> getMyEvents(Authentication auth) {
+    public ResponseEntity<List<EventDTO>> getMyEvents(
+            @RequestParam(required = false) String include,
+            Authentication auth
+    ) {
         UUID userId = extractUserId(auth);
-        return ResponseEntity.ok(eventService.getEventsByOrganizerUserId(userId));
+        return ResponseEntity.ok(withIncludes(eventService.getEventsByOrganizerUserId(userId), include));
     }
 
     @PostMapping
@@ -141,13 +147,20 @@ public class EventController {
         return ResponseEntity.ok(cancelled);
     }
 
+    /**
+     * Apply optional expansions requested through the include parameter (e.g. include=prediction)
+     */
+    private List<EventDTO> withIncludes(List<EventDTO> events, String include) {
+        if (include != null && Arrays.asList(include.split(",")).contains("prediction")) {
+            return eventService.withPredictions(events);
+        }
+        return events;
+    }
+
     /**
      * Extract user ID from authentication
      */
     private UUID extractUserId(Authentication auth) {
-        String email = auth.getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"))
-                .getId();
+        return AuthenticatedUser.of(auth).id();
     }
 }
@@ -2,7 +2,7 @@ package com.predictifylabs.backend.infrastructure.adapters.input.rest.controller
 
 import com.predictifylabs.backend.application.service.EventRegistrationService;
 import com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.registration.EventRegistrationDTO;
-import com.predictifylabs.backend.infrastructure.adapters.output.persistence.repository.UserRepository;
+import com.predictifylabs.backend.infrastructure.security.AuthenticatedUser;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -25,7 +25,6 @@ import java.util.UUID;
 public class EventRegistrationController {
 
     private final EventRegistrationService registrationService;
-    private final UserRepository userRepository;
 
     @PostMapping("/{eventId}/register")
     @Operation(summary = "Register to an event")
@@ -101,9 +100,6 @@ public class EventRegistrationController {
      * Extract user ID from authentication
      */
     private UUID extractUserId(Authentication auth) {
-        String email = auth.getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"))
-                .getId();
+        return AuthenticatedUser.of(auth).id();
     }
 }
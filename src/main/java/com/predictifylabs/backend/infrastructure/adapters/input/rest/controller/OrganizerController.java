@@ -5,7 +5,7 @@ import com.predictifylabs.backend.application.service.OrganizerService;
 import com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.event.EventDTO;
 import com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.organizer.CreateOrganizerDTO;
 import com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.organizer.OrganizerProfileDTO;
-import com.predictifylabs.backend.infrastructure.adapters.output.persistence.repository.UserRepository;
+import com.predictifylabs.backend.infrastructure.security.AuthenticatedUser;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -30,7 +30,6 @@ public class OrganizerController {
 
     private final OrganizerService organizerService;
     private final EventService eventService;
-    private final UserRepository userRepository;
 
     @GetMapping
     @Operation(summary = "Get all organizers")
@@ -94,9 +93,6 @@ public class OrganizerController {
      * Extract user ID from authentication
      */
     private UUID extractUserId(Authentication auth) {
-        String email = auth.getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"))
-                .getId();
+        return AuthenticatedUser.of(auth).id();
     }
 }
@@ -1,14 +1,23 @@
 package com.predictifylabs.backend.infrastructure.adapters.input.rest.controller;
 
 import com.predictifylabs.backend.application.service.PredictionService;
+import com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.prediction.AttendanceIntervalDTO;
 import com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.prediction.PredictionDTO;
+import com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.prediction.PredictionHistoryDTO;
+import com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.prediction.PredictionSimulationDTO;
+import com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.prediction.PredictionSimulationRequest;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -22,6 +31,18 @@ public class PredictionController {
 
     private final PredictionService predictionService;
 
+    private static final int MAX_BATCH_EVENT_IDS = 100;
+    private static final int MAX_SIMULATION_CELLS = 10_000;
+
+    @GetMapping("/events")
+    @Operation(summary = "Get the latest prediction of several events, keyed by event ID")
+    public ResponseEntity<Map<UUID, PredictionDTO>> getLatestPredictions(@RequestParam List<UUID> eventIds) {
+        if (eventIds.size() > MAX_BATCH_EVENT_IDS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(predictionService.getLatestPredictions(eventIds));
+    }
+
     @GetMapping("/events/{eventId}")
     @Operation(summary = "Get prediction for an event")
     public ResponseEntity<PredictionDTO> getEventPrediction(@PathVariable UUID eventId) {
@@ -32,6 +53,21 @@ public class PredictionController {
         return ResponseEntity.ok(prediction);
     }
 
+    @GetMapping("/events/{eventId}/history")
+    @Operation(summary = "Get downsampled prediction history for an event")
+    public ResponseEntity<PredictionHistoryDTO> getPredictionHistory(
+            @PathVariable UUID eventId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+            @RequestParam(defaultValue = "200") int points
+    ) {
+        try {
+            return ResponseEntity.ok(predictionService.getPredictionHistory(eventId, from, to, points));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @PostMapping("/events/{eventId}/generate")
     @Operation(summary = "Generate new prediction for an event")
     @PreAuthorize("isAuthenticated()")
@@ -40,10 +76,36 @@ public class PredictionController {
         return ResponseEntity.ok(prediction);
     }
 
+    @GetMapping("/events/{eventId}/intervals")
+    @Operation(summary = "Get Monte Carlo attendance percentile bands for an event")
+    public ResponseEntity<AttendanceIntervalDTO> getAttendanceIntervals(
+            @PathVariable UUID eventId,
+            @RequestParam(required = false) Integer samples,
+            @RequestParam(required = false) Long seed
+    ) {
+        return ResponseEntity.ok(predictionService.getAttendanceIntervals(eventId, samples, seed));
+    }
+
+    @PostMapping("/events/{eventId}/simulate")
+    @Operation(summary = "Simulate predictions for a grid of what-if overrides without persisting anything")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<PredictionSimulationDTO> simulatePrediction(
+            @PathVariable UUID eventId,
+            @RequestBody @Valid PredictionSimulationRequest request
+    ) {
+        if (request.cellCount() > MAX_SIMULATION_CELLS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(predictionService.simulatePrediction(eventId, request));
+    }
+
     @GetMapping("/events/{eventId}/insight")
-    @Operation(summary = "Get AI-generated insight for an event prediction")
+    @Operation(summary = "Get the stored AI-generated insight for an event prediction")
     public ResponseEntity<String> getPredictionInsight(@PathVariable UUID eventId) {
-        var insight = predictionService.generatePredictionInsight(eventId);
+        var insight = predictionService.getPredictionInsight(eventId);
+        if (insight == null) {
+            return ResponseEntity.notFound().build();
+        }
         return ResponseEntity.ok(insight);
     }
 }
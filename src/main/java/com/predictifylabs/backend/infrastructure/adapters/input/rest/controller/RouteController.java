@@ -0,0 +1,96 @@
+package com.predictifylabs.backend.infrastructure.adapters.input.rest.controller;
+
+import com.predictifylabs.backend.application.service.RouteAuthorizationService;
+import com.predictifylabs.backend.domain.model.Role;
+import com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.route.AccessibleRouteDTO;
+import com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.route.RouteAccessDTO;
+import com.predictifylabs.backend.infrastructure.security.AuthenticatedUser;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST Controller for frontend route authorization
+ */
+@RestController
+@RequestMapping("/api/v1/routes")
+@RequiredArgsConstructor
+@Tag(name = "Routes", description = "Frontend route authorization endpoints")
+public class RouteController {
+
+    private final RouteAuthorizationService routeAuthorizationService;
+
+    /**
+     * Routes the caller's role can open; anonymous callers get the public ones.
+     * The ETag changes only when the routes or the role's permissions do, so clients can revalidate cheaply.
+     * GET /api/v1/routes/accessible
+     */
+    @GetMapping("/accessible")
+    @Operation(summary = "Get the frontend routes accessible to the current user")
+    public ResponseEntity<List<AccessibleRouteDTO>> getAccessibleRoutes(Authentication auth) {
+        Role role = roleOf(auth);
+        var accessible = routeAuthorizationService.accessibleRoutes(role);
+        var routes = accessible.routes().stream()
+                .map(route -> AccessibleRouteDTO.builder()
+                        .path(route.path())
+                        .name(route.name())
+                        .description(route.description())
+                        .isPublic(route.isPublic())
+                        .build())
+                .toList();
+        // A 304 is sent instead when the ETag matches If-None-Match
+        return ResponseEntity.ok()
+                .eTag(accessible.version() + "-" + (role != null ? role.name().toLowerCase() : "anonymous"))
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(routes);
+    }
+
+    /**
+     * Whether the current user may open a frontend path, and where to redirect otherwise.
+     * GET /api/v1/routes/check?path=/dashboard/events/42/edit
+     */
+    @GetMapping("/check")
+    @Operation(summary = "Check access to a frontend path")
+    public ResponseEntity<RouteAccessDTO> checkAccess(@RequestParam String path, Authentication auth) {
+        Role role = roleOf(auth);
+        var decision = routeAuthorizationService.check(path, role);
+        var route = decision.route();
+        String redirect = null;
+        if (!decision.allowed() && route != null) {
+            redirect = role == null ? route.redirectUnauthorized() : route.redirectForbidden();
+        }
+        return ResponseEntity.ok(RouteAccessDTO.builder()
+                .path(path)
+                .route(route != null ? route.path() : null)
+                .allowed(decision.allowed())
+                .redirect(redirect)
+                .build());
+    }
+
+    /**
+     * Rebuild the route table after protected_routes or role_permissions changed.
+     * POST /api/v1/routes/reload
+     */
+    @PostMapping("/reload")
+    @Operation(summary = "Reload route authorization rules (admin only)")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> reload() {
+        routeAuthorizationService.reload();
+        return ResponseEntity.noContent().build();
+    }
+
+    private static Role roleOf(Authentication auth) {
+        return auth != null && auth.getPrincipal() instanceof AuthenticatedUser user ? user.role() : null;
+    }
+}
@@ -1,11 +1,13 @@
 package com.predictifylabs.backend.infrastructure.adapters.input.rest.controller;
 
 import com.predictifylabs.backend.application.service.EventRegistrationService;
+import com.predictifylabs.backend.application.service.SessionService;
 import com.predictifylabs.backend.application.service.UserService;
 import com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.registration.EventRegistrationDTO;
+import com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.user.SessionDTO;
 import com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.user.UpdateUserDTO;
 import com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.user.UserDTO;
-import com.predictifylabs.backend.infrastructure.adapters.output.persistence.repository.UserRepository;
+import com.predictifylabs.backend.infrastructure.security.AuthenticatedUser;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -29,7 +31,7 @@ public class UserController {
 
     private final UserService userService;
     private final EventRegistrationService registrationService;
-    private final UserRepository userRepository;
+    private final SessionService sessionService;
 
     @GetMapping("/me")
     @Operation(summary = "Get current user profile")
@@ -58,6 +60,14 @@ public class UserController {
         return ResponseEntity.ok(registrationService.getUserRegistrations(userId));
     }
 
+    @GetMapping("/me/sessions")
+    @Operation(summary = "Get current user's open sessions (devices)")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<List<SessionDTO>> getMySessions(Authentication auth) {
+        var user = AuthenticatedUser.of(auth);
+        return ResponseEntity.ok(sessionService.getSessions(user.id(), user.sessionId()));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get user by ID (admin only)")
     @PreAuthorize("hasRole('ADMIN')")
@@ -92,9 +102,6 @@ public class UserController {
      * Extract user ID from authentication
      */
     private UUID extractUserId(Authentication auth) {
-        String email = auth.getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"))
-                .getId();
+        return AuthenticatedUser.of(auth).id();
     }
 }
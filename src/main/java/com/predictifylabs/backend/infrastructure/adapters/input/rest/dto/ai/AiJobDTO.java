@@ -0,0 +1,28 @@
+package com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.ai;
+
+import com.predictifylabs.backend.domain.model.AiJobStatus;
+import com.predictifylabs.backend.domain.model.AiUseCase;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AiJobDTO {
+
+    private UUID id;
+    private AiUseCase useCase;
+    private AiJobStatus status;
+    private String result;
+    private String error;
+    private OffsetDateTime createdAt;
+    private OffsetDateTime startedAt;
+    private OffsetDateTime completedAt;
+    private OffsetDateTime expiresAt;
+}
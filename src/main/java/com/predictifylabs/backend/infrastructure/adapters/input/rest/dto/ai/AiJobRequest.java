@@ -0,0 +1,26 @@
+package com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.ai;
+
+import com.predictifylabs.backend.domain.model.AiUseCase;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AiJobRequest {
+
+    @NotNull(message = "Use case is required")
+    private AiUseCase useCase; // FREE_TEXT or EVENT_DESCRIPTION
+
+    @Size(min = 10, max = 5000, message = "Prompt must be between 10 and 5000 characters")
+    private String prompt; // Required for FREE_TEXT
+
+    @Valid
+    private GenerateEventDescriptionRequest eventDescription; // Required for EVENT_DESCRIPTION
+}
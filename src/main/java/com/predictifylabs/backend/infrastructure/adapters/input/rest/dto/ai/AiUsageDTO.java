@@ -0,0 +1,35 @@
+package com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.ai;
+
+import com.predictifylabs.backend.domain.model.Role;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AiUsageDTO {
+
+    private UUID userId;
+    private Role role;
+    private Duration window;
+    private long windowRequests;
+    private long windowTokens;
+    private long requestLimit;
+    private long tokenLimit;
+    private Map<String, DailyUsage> daily; // usage date -> persisted and pending totals
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class DailyUsage {
+        private long requests;
+        private long tokens;
+    }
+}
@@ -0,0 +1,28 @@
+package com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.audit;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AuditLogDTO {
+
+    private UUID id;
+    private UUID userId; // acting user, null for anonymous requests and background jobs
+    private String action;
+    private String entityType;
+    private UUID entityId;
+    private Map<String, Object> oldValues; // changed fields only for updates
+    private Map<String, Object> newValues;
+    private String ipAddress;
+    private String userAgent;
+    private OffsetDateTime createdAt;
+}
@@ -0,0 +1,18 @@
+package com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.audit;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AuditLogPageDTO {
+
+    private List<AuditLogDTO> items;
+    private String nextCursor; // pass as cursor for the next page, null on the last one
+}
@@ -1,8 +1,10 @@
 package com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.event;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.predictifylabs.backend.domain.model.EventCategory;
 import com.predictifylabs.backend.domain.model.EventStatus;
 import com.predictifylabs.backend.domain.model.EventType;
+import com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.prediction.PredictionDTO;
 import lombok.Builder;
 
 import java.math.BigDecimal;
@@ -14,7 +16,7 @@ import java.util.UUID;
 /**
  * DTO for Event listing and details
  */
-@Builder
+@Builder(toBuilder = true)
 public record EventDTO(
     UUID id,
     String title,
@@ -52,5 +54,9 @@ public record EventDTO(
     OffsetDateTime createdAt,
     
     OrganizerDTO organizer,
-    EventLocationDTO location
+    EventLocationDTO location,
+
+    // Only populated when the listing is requested with include=prediction
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    PredictionDTO prediction
 ) {}
@@ -0,0 +1,25 @@
+package com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.prediction;
+
+import lombok.Builder;
+
+import java.util.UUID;
+
+/**
+ * DTO for Monte Carlo attendance percentile bands of an event
+ */
+@Builder
+public record AttendanceIntervalDTO(
+    UUID eventId,
+    int samples,
+    long seed,
+    String basis, // category_type, category, all or prior
+    int historicalEvents,
+    double mean,
+    int p5,
+    int p10,
+    int p25,
+    int p50,
+    int p75,
+    int p90,
+    int p95
+) {}
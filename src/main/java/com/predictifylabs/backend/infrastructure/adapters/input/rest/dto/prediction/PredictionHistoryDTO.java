@@ -0,0 +1,20 @@
+package com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.prediction;
+
+import lombok.Builder;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO for a downsampled prediction history of an event
+ */
+@Builder
+public record PredictionHistoryDTO(
+    UUID eventId,
+    OffsetDateTime from,
+    OffsetDateTime to,
+    int rawCount,
+    int maxPoints,
+    List<PredictionHistoryPointDTO> points
+) {}
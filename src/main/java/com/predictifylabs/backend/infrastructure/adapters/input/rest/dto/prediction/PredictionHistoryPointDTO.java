@@ -0,0 +1,16 @@
+package com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.prediction;
+
+import lombok.Builder;
+
+import java.time.OffsetDateTime;
+
+/**
+ * DTO for a single point of a prediction history series
+ */
+@Builder
+public record PredictionHistoryPointDTO(
+    OffsetDateTime calculatedAt,
+    Short probability,
+    Integer estimatedExpected,
+    Short confidence
+) {}
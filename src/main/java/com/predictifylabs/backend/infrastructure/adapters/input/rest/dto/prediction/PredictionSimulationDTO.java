@@ -0,0 +1,23 @@
+package com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.prediction;
+
+import lombok.Builder;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO for a what-if prediction simulation result.
+ * probability and estimatedExpected are flattened row-major over
+ * startDates x capacities x isFree x featured (featured varies fastest).
+ */
+@Builder
+public record PredictionSimulationDTO(
+    UUID eventId,
+    List<LocalDate> startDates,
+    List<Integer> capacities,
+    List<Boolean> isFree,
+    List<Boolean> featured,
+    int[] probability,
+    int[] estimatedExpected
+) {}
@@ -0,0 +1,38 @@
+package com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.prediction;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO for a what-if prediction simulation.
+ * Every list is an axis of the grid; an empty or missing axis keeps the event's current value.
+ */
+public record PredictionSimulationRequest(
+    @Size(max = 100, message = "At most 100 start dates can be simulated")
+    List<@NotNull LocalDate> startDates,
+
+    @Size(max = 100, message = "At most 100 capacities can be simulated")
+    List<@NotNull @Min(value = 1, message = "Capacity must be at least 1") Integer> capacities,
+
+    @Size(max = 2, message = "isFree accepts at most two options")
+    List<@NotNull Boolean> isFree,
+
+    @Size(max = 2, message = "featured accepts at most two options")
+    List<@NotNull Boolean> featured
+) {
+
+    /**
+     * Number of cells the grid expands to
+     */
+    public long cellCount() {
+        return (long) axisSize(startDates) * axisSize(capacities) * axisSize(isFree) * axisSize(featured);
+    }
+
+    private static int axisSize(List<?> axis) {
+        return axis == null || axis.isEmpty() ? 1 : axis.size();
+    }
+}
@@ -0,0 +1,18 @@
+package com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.route;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AccessibleRouteDTO {
+
+    private String path;
+    private String name;
+    private String description;
+    private Boolean isPublic;
+}
@@ -0,0 +1,18 @@
+package com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.route;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class RouteAccessDTO {
+
+    private String path;
+    private String route; // matching route pattern, null if none
+    private boolean allowed;
+    private String redirect; // where to send the user when not allowed
+}
@@ -0,0 +1,24 @@
+package com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.user;
+
+import lombok.Builder;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * DTO for a login session of the current user
+ */
+@Builder
+public record SessionDTO(
+    UUID id,
+    String deviceName,
+    String deviceType,
+    String browser,
+    String os,
+    String ipAddress,
+    String location,
+    boolean current,
+    OffsetDateTime lastActivityAt,
+    OffsetDateTime createdAt,
+    OffsetDateTime expiresAt
+) {}
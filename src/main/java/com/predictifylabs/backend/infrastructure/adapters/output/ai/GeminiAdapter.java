@@ -1,15 +1,32 @@
 package com.predictifylabs.backend.infrastructure.adapters.output.ai;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.predictifylabs.backend.application.ports.output.AiGeneratorPort;
+import com.predictifylabs.backend.application.ports.output.AiPrompt;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
 
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
  * Infrastructure adapter that implements communication with the Google Gemini API.
@@ -19,25 +36,48 @@ import java.util.Map;
 public class GeminiAdapter implements AiGeneratorPort {
 
     private final RestClient restClient;
+    private final HttpClient httpClient;
+    private final Duration readTimeout;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
     private final String apiKey;
     private final String model;
+    private final String baseUrl;
 
-    private static final String GEMINI_BASE_URL = "https://generativelanguage.googleapis.com/v1beta";
+    private static final double TEMPERATURE = 0.7;
+    private static final int MAX_OUTPUT_TOKENS = 1024;
 
     public GeminiAdapter(
             @Value("${application.ai.gemini.api-key:}") String apiKey,
-            @Value("${application.ai.gemini.model:gemini-1.5-flash}") String model
+            @Value("${application.ai.gemini.model:gemini-1.5-flash}") String model,
+            @Value("${application.ai.gemini.base-url:https://generativelanguage.googleapis.com/v1beta}") String baseUrl,
+            @Value("${application.ai.gemini.connect-timeout:PT5S}") Duration connectTimeout,
+            @Value("${application.ai.gemini.read-timeout:PT30S}") Duration readTimeout,
+            MeterRegistry meterRegistry
     ) {
         this.apiKey = apiKey;
         this.model = model;
+        this.baseUrl = baseUrl;
+        this.readTimeout = readTimeout;
+        // Virtual-thread executor: an open stream holds no platform thread while waiting for tokens
+        this.httpClient = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(connectTimeout)
+                .build();
+        var requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(readTimeout);
         this.restClient = RestClient.builder()
-                .baseUrl(GEMINI_BASE_URL)
+                .baseUrl(baseUrl)
+                .requestFactory(requestFactory)
                 .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
                 .build();
+        this.objectMapper = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.meterRegistry = meterRegistry;
     }
 
     @Override
-    public String generateText(String prompt) {
+    public String generateText(AiPrompt prompt) {
         if (apiKey == null || apiKey.isBlank()) {
             log.warn("Gemini API key not configured. Returning mock response.");
             return getMockResponse(prompt);
@@ -54,6 +94,7 @@ public class GeminiAdapter implements AiGeneratorPort {
                     .retrieve()
                     .body(GeminiResponse.class);
 
+            recordUsage(prompt, response != null ? response.usageMetadata() : null);
             return extractTextFromResponse(response);
 
         } catch (Exception e) {
@@ -62,18 +103,122 @@ public class GeminiAdapter implements AiGeneratorPort {
         }
     }
 
-    private Map<String, Object> buildRequestBody(String prompt) {
-        return Map.of(
+    @Override
+    public CompletableFuture<Void> streamText(AiPrompt prompt, Consumer<String> onChunk) {
+        if (apiKey == null || apiKey.isBlank()) {
+            log.warn("Gemini API key not configured. Streaming mock response.");
+            return CompletableFuture.runAsync(() -> {
+                for (String word : getMockResponse(prompt).split("(?<= )")) {
+                    onChunk.accept(word);
+                }
+            }, runnable -> Thread.ofVirtual().start(runnable));
+        }
+
+        var completion = new CompletableFuture<Void>();
+        try {
+            var request = HttpRequest.newBuilder()
+                    .uri(URI.create(baseUrl + String.format("/models/%s:streamGenerateContent?alt=sse&key=%s", model, apiKey)))
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .header(HttpHeaders.ACCEPT, MediaType.TEXT_EVENT_STREAM_VALUE)
+                    .timeout(readTimeout)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(buildRequestBody(prompt))))
+                    .build();
+
+            var subscriber = new GeminiStreamSubscriber(objectMapper, onChunk,
+                    usage -> recordUsage(prompt, usage), completion);
+            HttpResponse.BodyHandler<Void> handler = responseInfo -> responseInfo.statusCode() == 200
+                    ? HttpResponse.BodySubscribers.fromLineSubscriber(subscriber)
+                    : HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofString(StandardCharsets.UTF_8),
+                            body -> {
+                                completion.completeExceptionally(new RuntimeException(
+                                        "Gemini API returned " + responseInfo.statusCode() + ": " + body));
+                                return null;
+                            });
+
+            var exchange = httpClient.sendAsync(request, handler);
+            exchange.whenComplete((response, error) -> {
+                if (error != null) {
+                    log.error("Error streaming from Gemini API: {}", error.getMessage());
+                    completion.completeExceptionally(error);
+                }
+            });
+            completion.whenComplete((ignored, error) -> {
+                if (completion.isCancelled()) {
+                    exchange.cancel(true);
+                }
+            });
+        } catch (Exception e) {
+            completion.completeExceptionally(new RuntimeException("Error streaming text with AI: " + e.getMessage(), e));
+        }
+        return completion;
+    }
+
+    @Override
+    public String modelSignature() {
+        if (apiKey == null || apiKey.isBlank()) {
+            return "mock";
+        }
+        return "gemini:%s;temperature=%s;maxOutputTokens=%d".formatted(model, TEMPERATURE, MAX_OUTPUT_TOKENS);
+    }
+
+    private Map<String, Object> buildRequestBody(AiPrompt prompt) {
+        Map<String, Object> body = new HashMap<>(Map.of(
                 "contents", List.of(
                         Map.of("parts", List.of(
-                                Map.of("text", prompt)
+                                Map.of("text", prompt.content())
                         ))
                 ),
                 "generationConfig", Map.of(
-                        "temperature", 0.7,
-                        "maxOutputTokens", 1024
+                        "temperature", TEMPERATURE,
+                        "maxOutputTokens", MAX_OUTPUT_TOKENS
                 )
-        );
+        ));
+        if (prompt.systemInstruction() != null) {
+            body.put("systemInstruction", Map.of("parts", List.of(Map.of("text", prompt.systemInstruction()))));
+        }
+        return body;
+    }
+
+    /**
+     * Token counts as billed by the API, from usageMetadata
+     */
+    private void recordUsage(AiPrompt prompt, UsageMetadata usage) {
+        if (usage == null) {
+            return;
+        }
+        String useCase = prompt.useCase() != null ? prompt.useCase().name() : "UNKNOWN";
+        if (usage.promptTokenCount() != null) {
+            tokenSummary(useCase, "input").record(usage.promptTokenCount());
+        }
+        if (usage.candidatesTokenCount() != null) {
+            tokenSummary(useCase, "output").record(usage.candidatesTokenCount());
+        }
+    }
+
+    private DistributionSummary tokenSummary(String useCase, String direction) {
+        return DistributionSummary.builder("ai.tokens")
+                .description("Tokens per Gemini call as reported by the API")
+                .baseUnit("tokens")
+                .tag("use_case", useCase)
+                .tag("direction", direction)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Text of the first candidate, or empty for chunks without text (e.g. the final usage-only chunk)
+     */
+    static String textOf(GeminiResponse response) {
+        if (response == null || response.candidates() == null || response.candidates().isEmpty()) {
+            return "";
+        }
+        var content = response.candidates().get(0).content();
+        if (content == null || content.parts() == null) {
+            return "";
+        }
+        return content.parts().stream()
+                .map(Part::text)
+                .filter(text -> text != null)
+                .collect(Collectors.joining());
     }
 
     private String extractTextFromResponse(GeminiResponse response) {
@@ -89,7 +234,8 @@ public class GeminiAdapter implements AiGeneratorPort {
         return candidate.content().parts().get(0).text();
     }
 
-    private String getMockResponse(String prompt) {
+    private String getMockResponse(AiPrompt aiPrompt) {
+        String prompt = aiPrompt.content();
         return """
                 [DEVELOPMENT MODE - API Key not configured]
                 
@@ -102,8 +248,9 @@ public class GeminiAdapter implements AiGeneratorPort {
     }
 
     // Records for deserializing Gemini response
-    record GeminiResponse(List<Candidate> candidates) {}
-    record Candidate(Content content) {}
+    record GeminiResponse(List<Candidate> candidates, UsageMetadata usageMetadata) {}
+    record UsageMetadata(Integer promptTokenCount, Integer candidatesTokenCount, Integer totalTokenCount) {}
+    record Candidate(Content content, String finishReason) {}
     record Content(List<Part> parts) {}
     record Part(String text) {}
 }
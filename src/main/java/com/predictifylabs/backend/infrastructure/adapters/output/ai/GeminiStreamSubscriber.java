@@ -0,0 +1,84 @@
+package com.predictifylabs.backend.infrastructure.adapters.output.ai;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+
+/**
+ * Line subscriber for Gemini's server-sent events stream.
+ * Each "data:" line carries one partial GenerateContentResponse; its text is forwarded
+ * as soon as the line arrives, one line requested at a time, so nothing is buffered.
+ */
+class GeminiStreamSubscriber implements Flow.Subscriber<String> {
+
+    private static final String DATA_PREFIX = "data:";
+
+    private final ObjectMapper objectMapper;
+    private final Consumer<String> onChunk;
+    private final Consumer<GeminiAdapter.UsageMetadata> onUsage;
+    private final CompletableFuture<Void> completion;
+    private volatile Flow.Subscription subscription;
+
+    GeminiStreamSubscriber(ObjectMapper objectMapper, Consumer<String> onChunk,
+                           Consumer<GeminiAdapter.UsageMetadata> onUsage, CompletableFuture<Void> completion) {
+        this.objectMapper = objectMapper;
+        this.onChunk = onChunk;
+        this.onUsage = onUsage;
+        this.completion = completion;
+        // Cancelling the stream from the caller side stops reading from the connection
+        completion.whenComplete((ignored, error) -> {
+            if (completion.isCancelled() && subscription != null) {
+                subscription.cancel();
+            }
+        });
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        if (completion.isDone()) {
+            subscription.cancel();
+            return;
+        }
+        subscription.request(1);
+    }
+
+    @Override
+    public void onNext(String line) {
+        if (completion.isDone()) {
+            return;
+        }
+        try {
+            if (line.startsWith(DATA_PREFIX)) {
+                var response = objectMapper.readValue(line.substring(DATA_PREFIX.length()).trim(),
+                        GeminiAdapter.GeminiResponse.class);
+                String text = GeminiAdapter.textOf(response);
+                if (!text.isEmpty()) {
+                    onChunk.accept(text);
+                }
+                // Only the last chunk carries final counts; earlier ones may carry running totals
+                if (response.usageMetadata() != null && response.usageMetadata().candidatesTokenCount() != null
+                        && response.candidates() != null && !response.candidates().isEmpty()
+                        && response.candidates().get(0).finishReason() != null) {
+                    onUsage.accept(response.usageMetadata());
+                }
+            }
+            subscription.request(1);
+        } catch (Exception e) {
+            subscription.cancel();
+            completion.completeExceptionally(e);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        completion.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        completion.complete(null);
+    }
+}
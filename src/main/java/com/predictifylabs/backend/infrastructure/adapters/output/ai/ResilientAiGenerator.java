@@ -0,0 +1,182 @@
+package com.predictifylabs.backend.infrastructure.adapters.output.ai;
+
+import com.predictifylabs.backend.application.ports.output.AiGeneratorPort;
+import com.predictifylabs.backend.application.ports.output.AiPrompt;
+import com.predictifylabs.backend.application.ports.output.AiUnavailableException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.nio.channels.ClosedByInterruptException;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Resilience layer in front of the Gemini adapter.
+ * Calls pass a circuit breaker, a token-bucket rate limiter matched to the API quota and a
+ * bounded-concurrency bulkhead, in that order, so an open breaker fails fast without spending a
+ * token or waiting for a slot. A refused call fails with {@link AiUnavailableException} instead of
+ * occupying a request thread, and so does a call whose upstream request failed or timed out.
+ * Every call is timed under ai.generation, tagged with its outcome.
+ */
+@Component
+@Primary
+public class ResilientAiGenerator implements AiGeneratorPort {
+
+    private final GeminiAdapter delegate;
+    private final MeterRegistry meterRegistry;
+    private final TokenBucket rateLimiter;
+    private final Semaphore bulkhead;
+    private final CircuitBreaker circuitBreaker;
+    private final Duration maxWait;
+
+    public ResilientAiGenerator(
+            GeminiAdapter delegate,
+            MeterRegistry meterRegistry,
+            @Value("${application.ai.resilience.max-concurrent:8}") int maxConcurrent,
+            @Value("${application.ai.resilience.max-wait:PT0.5S}") Duration maxWait,
+            @Value("${application.ai.resilience.requests-per-minute:60}") int requestsPerMinute,
+            @Value("${application.ai.resilience.burst:10}") int burst,
+            @Value("${application.ai.resilience.failure-threshold:5}") int failureThreshold,
+            @Value("${application.ai.resilience.open-duration:PT30S}") Duration openDuration
+    ) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+        this.rateLimiter = new TokenBucket(burst, requestsPerMinute / 60d);
+        this.bulkhead = new Semaphore(maxConcurrent);
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openDuration);
+        this.maxWait = maxWait;
+
+        Gauge.builder("ai.bulkhead.available", bulkhead, Semaphore::availablePermits)
+                .description("Free AI call slots")
+                .register(meterRegistry);
+        Gauge.builder("ai.circuit.open", circuitBreaker, breaker -> breaker.state() == CircuitBreaker.State.CLOSED ? 0 : 1)
+                .description("1 while the AI circuit breaker is open or half-open")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String generateText(AiPrompt prompt) {
+        long start = System.nanoTime();
+        acquire(start);
+        try {
+            String text = delegate.generateText(prompt);
+            circuitBreaker.onSuccess();
+            record("success", start);
+            return text;
+        } catch (RuntimeException e) {
+            // A call abandoned by its callers says nothing about the provider's health
+            if (!isTimeout(e) && (Thread.currentThread().isInterrupted() || isCancellation(e))) {
+                circuitBreaker.onIgnored();
+                record("cancelled", start);
+                throw new AiUnavailableException("AI request cancelled", e);
+            }
+            circuitBreaker.onFailure();
+            boolean timeout = isTimeout(e);
+            record(timeout ? "timeout" : "failure", start);
+            throw new AiUnavailableException(timeout ? "AI request timed out" : "AI request failed: " + e.getMessage(), e);
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> streamText(AiPrompt prompt, Consumer<String> onChunk) {
+        long start = System.nanoTime();
+        acquire(start);
+        CompletableFuture<Void> stream;
+        try {
+            stream = delegate.streamText(prompt, onChunk);
+        } catch (RuntimeException e) {
+            bulkhead.release();
+            circuitBreaker.onFailure();
+            record("failure", start);
+            throw new AiUnavailableException("AI stream failed to start: " + e.getMessage(), e);
+        }
+        // The slot is held for the whole stream and released however it ends
+        stream.whenComplete((ignored, error) -> {
+            bulkhead.release();
+            if (error == null) {
+                circuitBreaker.onSuccess();
+                record("success", start);
+            } else if (!isTimeout(error) && isCancellation(error)) {
+                circuitBreaker.onIgnored();
+                record("cancelled", start);
+            } else {
+                circuitBreaker.onFailure();
+                record(isTimeout(error) ? "timeout" : "failure", start);
+            }
+        });
+        return stream;
+    }
+
+    @Override
+    public String modelSignature() {
+        return delegate.modelSignature();
+    }
+
+    private void acquire(long start) {
+        if (!circuitBreaker.tryAcquire()) {
+            record("short_circuited", start);
+            throw new AiUnavailableException("AI provider temporarily unavailable");
+        }
+        // Refused after passing the breaker: give back a half-open trial without a verdict
+        if (!rateLimiter.tryAcquire()) {
+            circuitBreaker.onIgnored();
+            record("rate_limited", start);
+            throw new AiUnavailableException("AI request rate limit reached");
+        }
+        try {
+            if (!bulkhead.tryAcquire(maxWait.toMillis(), TimeUnit.MILLISECONDS)) {
+                circuitBreaker.onIgnored();
+                record("bulkhead_full", start);
+                throw new AiUnavailableException("Too many concurrent AI requests");
+            }
+        } catch (InterruptedException e) {
+            circuitBreaker.onIgnored();
+            Thread.currentThread().interrupt();
+            throw new AiUnavailableException("Interrupted while waiting for an AI slot", e);
+        }
+    }
+
+    private void record(String outcome, long start) {
+        Timer.builder("ai.generation")
+                .description("AI generation latency by outcome")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Socket timeouts are also InterruptedIOExceptions, so callers check {@link #isTimeout} first
+     */
+    private static boolean isCancellation(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof CancellationException || cause instanceof InterruptedException
+                    || cause instanceof InterruptedIOException || cause instanceof ClosedByInterruptException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isTimeout(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof HttpTimeoutException || cause instanceof SocketTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,131 @@
+package com.predictifylabs.backend.infrastructure.adapters.output.cache;
+
+import com.predictifylabs.backend.application.ports.output.AiResponseCachePort;
+import com.predictifylabs.backend.domain.model.AiUseCase;
+import com.predictifylabs.backend.infrastructure.config.AiCacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Two-tier AI response cache: a bounded LRU map in memory and, when enabled,
+ * a memory-mapped file that keeps responses across restarts.
+ * Disk hits are promoted back into memory.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AiResponseCacheAdapter implements AiResponseCachePort {
+
+    private final AiCacheProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private Map<String, CachedResponse> memory;
+    private MappedResponseStore disk;
+
+    @PostConstruct
+    void init() {
+        int maxEntries = properties.getMaxEntries();
+        memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > maxEntries;
+            }
+        };
+
+        if (properties.isEnabled() && properties.getDisk().isEnabled()) {
+            Path path = Path.of(properties.getDisk().getPath());
+            try {
+                disk = MappedResponseStore.open(path, properties.getDisk().getSizeMb() * 1024L * 1024L);
+                log.info("AI response disk cache opened at {} with {} entries", path, disk.size());
+            } catch (IOException e) {
+                log.warn("Could not open AI response disk cache at {}, using memory only: {}", path, e.getMessage());
+            }
+        }
+        log.info("AI response cache enabled={}, maxEntries={}, ttl={}",
+                properties.isEnabled(), maxEntries, properties.getTtl());
+    }
+
+    @PreDestroy
+    synchronized void close() {
+        if (disk != null) {
+            try {
+                disk.close();
+            } catch (IOException e) {
+                log.warn("Could not flush AI response disk cache: {}", e.getMessage());
+            }
+            disk = null;
+        }
+    }
+
+    @Override
+    public synchronized Optional<String> get(String key) {
+        if (!properties.isEnabled()) {
+            return Optional.empty();
+        }
+        long now = System.currentTimeMillis();
+
+        // Expired entries stay until evicted so they can still serve as a stale fallback
+        var cached = memory.get(key);
+        if (cached != null && cached.expiresAt() > now) {
+            meterRegistry.counter("ai.cache.requests", "result", "memory_hit").increment();
+            return Optional.of(cached.text());
+        }
+
+        var stored = disk != null ? disk.get(key, now) : null;
+        if (stored != null) {
+            memory.put(key, new CachedResponse(stored.value(), stored.expiresAt()));
+            meterRegistry.counter("ai.cache.requests", "result", "disk_hit").increment();
+            return Optional.of(stored.value());
+        }
+
+        meterRegistry.counter("ai.cache.requests", "result", "miss").increment();
+        return Optional.empty();
+    }
+
+    @Override
+    public synchronized Optional<String> getStale(String key) {
+        if (!properties.isEnabled()) {
+            return Optional.empty();
+        }
+        var cached = memory.get(key);
+        if (cached != null) {
+            meterRegistry.counter("ai.cache.requests", "result", "stale_hit").increment();
+            return Optional.of(cached.text());
+        }
+        var stored = disk != null ? disk.get(key, Long.MIN_VALUE) : null;
+        if (stored != null) {
+            meterRegistry.counter("ai.cache.requests", "result", "stale_hit").increment();
+            return Optional.of(stored.value());
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public synchronized void put(String key, AiUseCase useCase, String text) {
+        Duration ttl = properties.ttlFor(useCase);
+        if (!properties.isEnabled() || text == null || ttl.isZero() || ttl.isNegative()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long expiresAt = now + ttl.toMillis();
+
+        memory.put(key, new CachedResponse(text, expiresAt));
+        if (disk != null) {
+            disk.put(key, text, expiresAt, now);
+        }
+    }
+
+    private record CachedResponse(String text, long expiresAt) {
+    }
+}
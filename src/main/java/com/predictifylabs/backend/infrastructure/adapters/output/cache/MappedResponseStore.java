@@ -0,0 +1,167 @@
+package com.predictifylabs.backend.infrastructure.adapters.output.cache;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only response log in a memory-mapped file, replayed into an index on open.
+ * Each record is: key, expiry and value; a later record for the same key replaces an earlier one.
+ * When the file is full, live entries are rewritten from the start of the file.
+ * Not thread-safe on its own; callers synchronize.
+ */
+final class MappedResponseStore implements AutoCloseable {
+
+    private static final int MAGIC = 0x41494332; // "AIC2", files of the tagged "AIC1" format are reset
+    private static final int HEADER_SIZE = 8; // magic + write position
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final Map<String, Slot> index = new HashMap<>();
+
+    private MappedResponseStore(FileChannel channel, MappedByteBuffer buffer) {
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    static MappedResponseStore open(Path path, long capacityBytes) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        var store = new MappedResponseStore(channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, capacityBytes));
+        store.replay();
+        return store;
+    }
+
+    Stored get(String key, long now) {
+        Slot slot = index.get(key);
+        // Expired slots are left for compaction to drop, so callers may still ask for them with an earlier "now"
+        if (slot == null || slot.expiresAt() <= now) {
+            return null;
+        }
+        return new Stored(read(slot), slot.expiresAt());
+    }
+
+    void put(String key, String value, long expiresAt, long now) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        byte[] valueBytes = value.getBytes(StandardCharsets.UTF_8);
+        int size = recordSize(keyBytes, valueBytes.length);
+
+        if (writePosition() + size > buffer.capacity()) {
+            compact(now);
+            if (writePosition() + size > buffer.capacity()) {
+                return; // Larger than the free space even after compaction
+            }
+        }
+        append(keyBytes, expiresAt, valueBytes, key);
+    }
+
+    int size() {
+        return index.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    private void append(byte[] keyBytes, long expiresAt, byte[] valueBytes, String key) {
+        int position = writePosition();
+        buffer.position(position);
+        buffer.putInt(keyBytes.length).put(keyBytes);
+        buffer.putLong(expiresAt);
+        buffer.putInt(valueBytes.length);
+        int valueOffset = buffer.position();
+        buffer.put(valueBytes);
+        index.put(key, new Slot(valueOffset, valueBytes.length, expiresAt));
+        // Publish the record only once it is fully written
+        buffer.putInt(4, buffer.position());
+    }
+
+    private void replay() {
+        if (buffer.getInt(0) != MAGIC) {
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, HEADER_SIZE);
+            return;
+        }
+        int end = writePosition();
+        if (end < HEADER_SIZE || end > buffer.capacity()) {
+            buffer.putInt(4, HEADER_SIZE);
+            return;
+        }
+
+        buffer.position(HEADER_SIZE);
+        try {
+            while (buffer.position() < end) {
+                byte[] keyBytes = new byte[buffer.getInt()];
+                buffer.get(keyBytes);
+                long expiresAt = buffer.getLong();
+                int valueLength = buffer.getInt();
+                String key = new String(keyBytes, StandardCharsets.UTF_8);
+                index.put(key, new Slot(buffer.position(), valueLength, expiresAt));
+                buffer.position(buffer.position() + valueLength);
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException | NegativeArraySizeException e) {
+            // Torn or corrupt tail: start over rather than serve garbage
+            index.clear();
+            buffer.putInt(4, HEADER_SIZE);
+        }
+    }
+
+    private void compact(long now) {
+        record Live(String key, Stored stored) {
+        }
+        List<Live> live = new ArrayList<>();
+        index.forEach((key, slot) -> {
+            if (slot.expiresAt() > now) {
+                live.add(new Live(key, new Stored(read(slot), slot.expiresAt())));
+            }
+        });
+        // Soonest-expiring entries go last so they are the ones dropped if space runs out
+        live.sort((a, b) -> Long.compare(b.stored().expiresAt(), a.stored().expiresAt()));
+
+        index.clear();
+        buffer.putInt(4, HEADER_SIZE);
+        for (Live entry : live) {
+            var stored = entry.stored();
+            byte[] keyBytes = entry.key().getBytes(StandardCharsets.UTF_8);
+            byte[] valueBytes = stored.value().getBytes(StandardCharsets.UTF_8);
+            if (writePosition() + recordSize(keyBytes, valueBytes.length) > buffer.capacity() / 2) {
+                break; // Leave half the file free so compaction doesn't run on every put
+            }
+            append(keyBytes, stored.expiresAt(), valueBytes, entry.key());
+        }
+    }
+
+    private String read(Slot slot) {
+        byte[] value = new byte[slot.length()];
+        buffer.get(slot.offset(), value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    private int writePosition() {
+        return buffer.getInt(4);
+    }
+
+    private static int recordSize(byte[] keyBytes, int valueLength) {
+        return 4 + keyBytes.length + 8 + 4 + valueLength;
+    }
+
+    record Stored(String value, long expiresAt) {
+    }
+
+    private record Slot(int offset, int length, long expiresAt) {
+    }
+}
@@ -2,6 +2,7 @@ package com.predictifylabs.backend.infrastructure.adapters.output.persistence.en
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnTransformer;
 import java.time.OffsetDateTime;
 import java.util.UUID;
 
@@ -42,6 +43,7 @@ public class ActiveSessionEntity {
     private String os;
 
     @Column(name = "ip_address")
+    @ColumnTransformer(write = "CAST(? AS inet)")
     private String ipAddress;
 
     @Column(length = 255)
@@ -0,0 +1,61 @@
+package com.predictifylabs.backend.infrastructure.adapters.output.persistence.entity;
+
+import com.predictifylabs.backend.domain.model.AiJobStatus;
+import com.predictifylabs.backend.domain.model.AiUseCase;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Asynchronous AI job entity matching PostgreSQL ai_jobs table
+ */
+@Entity
+@Table(name = "ai_jobs")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AiJobEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "use_case", nullable = false, length = 30)
+    private AiUseCase useCase;
+
+    @Column(name = "cache_key", nullable = false, length = 64)
+    private String cacheKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Builder.Default
+    private AiJobStatus status = AiJobStatus.PENDING;
+
+    @Column(columnDefinition = "TEXT")
+    private String result;
+
+    @Column(columnDefinition = "TEXT")
+    private String error;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false, nullable = false)
+    private OffsetDateTime createdAt;
+
+    @Column(name = "started_at")
+    private OffsetDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private OffsetDateTime completedAt;
+
+    // Se fija al terminar; el trabajo se borra al vencer
+    @Column(name = "expires_at")
+    private OffsetDateTime expiresAt;
+}
@@ -0,0 +1,48 @@
+package com.predictifylabs.backend.infrastructure.adapters.output.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Daily AI usage per user matching PostgreSQL ai_usage table
+ */
+@Entity
+@Table(name = "ai_usage")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AiUsageEntity {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(nullable = false)
+    private Long requests;
+
+    @Column(nullable = false)
+    private Long tokens;
+
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+
+    @Embeddable
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+
+        @Column(name = "user_id", nullable = false)
+        private UUID userId;
+
+        @Column(name = "usage_date", nullable = false)
+        private LocalDate usageDate;
+    }
+}
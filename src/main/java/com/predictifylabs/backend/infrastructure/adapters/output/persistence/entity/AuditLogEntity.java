@@ -10,7 +10,8 @@ import java.util.Map;
 import java.util.UUID;
 
 /**
- * Audit log entity matching PostgreSQL audit_log table
+ * Audit log entity matching PostgreSQL audit_log table.
+ * The table is partitioned by month on created_at with primary key (created_at, id); id alone is still unique.
  */
 @Entity
 @Table(name = "audit_log")
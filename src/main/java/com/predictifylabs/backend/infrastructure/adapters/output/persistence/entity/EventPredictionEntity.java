@@ -59,6 +59,13 @@ public class EventPredictionEntity {
     @Column(name = "trend_change", precision = 5, scale = 2)
     private java.math.BigDecimal trendChange;
 
+    // Insight generado por IA
+    @Column(columnDefinition = "TEXT")
+    private String insight;
+
+    @Column(name = "insight_generated_at")
+    private OffsetDateTime insightGeneratedAt;
+
     // Timestamps
     @Column(name = "calculated_at", nullable = false)
     private OffsetDateTime calculatedAt;
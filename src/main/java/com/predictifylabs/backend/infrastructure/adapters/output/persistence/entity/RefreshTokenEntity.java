@@ -19,6 +19,11 @@ import java.util.UUID;
 @Builder
 public class RefreshTokenEntity {
 
+    /** Replaced by a newer token of the same session; presenting it again means it was copied */
+    public static final String REVOKED_ROTATED = "rotated";
+    public static final String REVOKED_REUSE = "reuse";
+    public static final String REVOKED_IDLE = "idle";
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
@@ -42,6 +47,9 @@ public class RefreshTokenEntity {
     @Column(name = "revoked_at")
     private OffsetDateTime revokedAt;
 
+    @Column(name = "revoke_reason", length = 20)
+    private String revokeReason;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false, nullable = false)
     private OffsetDateTime createdAt;
@@ -70,6 +70,11 @@ public class UserEntity {
     @Column(name = "locked_until")
     private OffsetDateTime lockedUntil;
 
+    // Los access tokens con una versión menor dejan de ser válidos; solo se cambia con incrementTokenVersion
+    @Column(name = "token_version", nullable = false, updatable = false)
+    @Builder.Default
+    private Integer tokenVersion = 0;
+
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<RefreshTokenEntity> refreshTokens;
 
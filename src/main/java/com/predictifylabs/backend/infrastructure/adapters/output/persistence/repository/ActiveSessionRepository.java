@@ -0,0 +1,61 @@
+package com.predictifylabs.backend.infrastructure.adapters.output.persistence.repository;
+
+import com.predictifylabs.backend.infrastructure.adapters.output.persistence.entity.ActiveSessionEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface ActiveSessionRepository extends JpaRepository<ActiveSessionEntity, UUID> {
+
+    @Query("SELECT s FROM ActiveSessionEntity s WHERE s.user.id = :userId AND s.expiresAt > :now " +
+            "ORDER BY s.lastActivityAt DESC")
+    List<ActiveSessionEntity> findActiveByUser(@Param("userId") UUID userId, @Param("now") OffsetDateTime now);
+
+    @Query("SELECT s FROM ActiveSessionEntity s WHERE s.refreshToken.id = :refreshTokenId")
+    Optional<ActiveSessionEntity> findByRefreshTokenId(@Param("refreshTokenId") UUID refreshTokenId);
+
+    /**
+     * Move a session to the refresh token that replaced its previous one
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE active_sessions SET refresh_token_id = :newTokenId, expires_at = :expiresAt " +
+            "WHERE id = :sessionId", nativeQuery = true)
+    int rotateRefreshToken(@Param("sessionId") UUID sessionId,
+                           @Param("newTokenId") UUID newTokenId,
+                           @Param("expiresAt") OffsetDateTime expiresAt);
+
+    /**
+     * End every open session of a user, e.g. when all their refresh tokens are revoked
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ActiveSessionEntity s SET s.expiresAt = :now WHERE s.user.id = :userId AND s.expiresAt > :now")
+    int expireAllByUser(@Param("userId") UUID userId, @Param("now") OffsetDateTime now);
+
+    /**
+     * Revoke the refresh tokens of sessions idle since before the cutoff, so they cannot be renewed
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE refresh_tokens SET revoked_at = :now, revoke_reason = 'idle'
+            WHERE revoked_at IS NULL AND id IN (
+                SELECT refresh_token_id FROM active_sessions
+                WHERE last_activity_at < :idleBefore AND refresh_token_id IS NOT NULL
+            )
+            """, nativeQuery = true)
+    int revokeTokensOfIdleSessions(@Param("idleBefore") OffsetDateTime idleBefore, @Param("now") OffsetDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ActiveSessionEntity s WHERE s.lastActivityAt < :idleBefore OR s.expiresAt < :now")
+    int deleteIdleOrExpired(@Param("idleBefore") OffsetDateTime idleBefore, @Param("now") OffsetDateTime now);
+}
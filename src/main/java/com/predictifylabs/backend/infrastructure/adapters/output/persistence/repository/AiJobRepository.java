@@ -0,0 +1,58 @@
+package com.predictifylabs.backend.infrastructure.adapters.output.persistence.repository;
+
+import com.predictifylabs.backend.domain.model.AiJobStatus;
+import com.predictifylabs.backend.infrastructure.adapters.output.persistence.entity.AiJobEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface AiJobRepository extends JpaRepository<AiJobEntity, UUID> {
+
+    Optional<AiJobEntity> findByIdAndUserId(UUID id, UUID userId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE AiJobEntity j SET j.status = :running, j.startedAt = :startedAt " +
+            "WHERE j.id IN :ids AND j.status = :pending")
+    int markRunning(@Param("ids") Collection<UUID> ids,
+                    @Param("startedAt") OffsetDateTime startedAt,
+                    @Param("pending") AiJobStatus pending,
+                    @Param("running") AiJobStatus running);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE AiJobEntity j SET j.status = :status, j.result = :result, j.error = :error, " +
+            "j.completedAt = :completedAt, j.expiresAt = :expiresAt WHERE j.id IN :ids")
+    int finish(@Param("ids") Collection<UUID> ids,
+               @Param("status") AiJobStatus status,
+               @Param("result") String result,
+               @Param("error") String error,
+               @Param("completedAt") OffsetDateTime completedAt,
+               @Param("expiresAt") OffsetDateTime expiresAt);
+
+    /**
+     * Fails jobs left unfinished for too long, e.g. by a restart while they were queued or running
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE AiJobEntity j SET j.status = :failed, j.error = :error, j.completedAt = :now, " +
+            "j.expiresAt = :expiresAt WHERE j.status IN :unfinished AND j.createdAt < :before")
+    int failUnfinishedBefore(@Param("before") OffsetDateTime before,
+                             @Param("unfinished") Collection<AiJobStatus> unfinished,
+                             @Param("failed") AiJobStatus failed,
+                             @Param("error") String error,
+                             @Param("now") OffsetDateTime now,
+                             @Param("expiresAt") OffsetDateTime expiresAt);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM AiJobEntity j WHERE j.expiresAt < :now")
+    int deleteExpired(@Param("now") OffsetDateTime now);
+}
@@ -0,0 +1,37 @@
+package com.predictifylabs.backend.infrastructure.adapters.output.persistence.repository;
+
+import com.predictifylabs.backend.infrastructure.adapters.output.persistence.entity.AiUsageEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public interface AiUsageRepository extends JpaRepository<AiUsageEntity, AiUsageEntity.Key> {
+
+    /**
+     * Adds a usage delta to the user's row for the day, creating it if needed
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO ai_usage (user_id, usage_date, requests, tokens, updated_at)
+            VALUES (:userId, :usageDate, :requests, :tokens, NOW())
+            ON CONFLICT (user_id, usage_date) DO UPDATE
+            SET requests = ai_usage.requests + EXCLUDED.requests,
+                tokens = ai_usage.tokens + EXCLUDED.tokens,
+                updated_at = NOW()
+            """, nativeQuery = true)
+    int addUsage(@Param("userId") UUID userId,
+                 @Param("usageDate") LocalDate usageDate,
+                 @Param("requests") long requests,
+                 @Param("tokens") long tokens);
+
+    @Query("SELECT u FROM AiUsageEntity u WHERE u.id.userId = :userId AND u.id.usageDate >= :from " +
+            "ORDER BY u.id.usageDate DESC")
+    List<AiUsageEntity> findByUserIdSince(@Param("userId") UUID userId, @Param("from") LocalDate from);
+}
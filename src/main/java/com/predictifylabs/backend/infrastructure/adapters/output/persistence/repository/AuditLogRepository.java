@@ -0,0 +1,42 @@
+package com.predictifylabs.backend.infrastructure.adapters.output.persistence.repository;
+
+import com.predictifylabs.backend.infrastructure.adapters.output.persistence.entity.AuditLogEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Audit history, newest first, one keyset page at a time.
+ * Rows are taken from [from, to] and, at exactly {@code to}, only those with an id below
+ * {@code beforeId}; both bounds are on created_at so only the partitions of the range are scanned.
+ */
+public interface AuditLogRepository extends JpaRepository<AuditLogEntity, UUID> {
+
+    @Query("SELECT a FROM AuditLogEntity a " +
+            "WHERE a.entityType = :entityType AND a.entityId = :entityId " +
+            "AND a.createdAt >= :from AND a.createdAt <= :to " +
+            "AND (a.createdAt < :to OR a.id < :beforeId) " +
+            "ORDER BY a.createdAt DESC, a.id DESC")
+    List<AuditLogEntity> findByEntityBefore(@Param("entityType") String entityType,
+                                            @Param("entityId") UUID entityId,
+                                            @Param("from") OffsetDateTime from,
+                                            @Param("to") OffsetDateTime to,
+                                            @Param("beforeId") UUID beforeId,
+                                            Pageable pageable);
+
+    @Query("SELECT a FROM AuditLogEntity a " +
+            "WHERE a.user.id = :userId " +
+            "AND a.createdAt >= :from AND a.createdAt <= :to " +
+            "AND (a.createdAt < :to OR a.id < :beforeId) " +
+            "ORDER BY a.createdAt DESC, a.id DESC")
+    List<AuditLogEntity> findByUserBefore(@Param("userId") UUID userId,
+                                          @Param("from") OffsetDateTime from,
+                                          @Param("to") OffsetDateTime to,
+                                          @Param("beforeId") UUID beforeId,
+                                          Pageable pageable);
+}
@@ -1,10 +1,17 @@
 package com.predictifylabs.backend.infrastructure.adapters.output.persistence.repository;
 
 import com.predictifylabs.backend.infrastructure.adapters.output.persistence.entity.EventPredictionEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -12,4 +19,156 @@ public interface EventPredictionRepository extends JpaRepository<EventPrediction
 
     @Query("SELECT ep FROM EventPredictionEntity ep WHERE ep.event.id = :eventId ORDER BY ep.calculatedAt DESC LIMIT 1")
     Optional<EventPredictionEntity> findLatestByEventId(@Param("eventId") UUID eventId);
+
+    /**
+     * Latest prediction of each requested event in a single round trip.
+     * DISTINCT ON walks idx_event_predictions_latest once per event id.
+     */
+    @Query(value = "SELECT DISTINCT ON (event_id) * FROM event_predictions " +
+            "WHERE event_id IN (:eventIds) ORDER BY event_id, calculated_at DESC", nativeQuery = true)
+    List<EventPredictionEntity> findLatestByEventIds(@Param("eventIds") Collection<UUID> eventIds);
+
+    /**
+     * Most recent stored insight of an event. Served by idx_event_predictions_latest; while a new
+     * prediction's insight is pending, the previous one is returned.
+     */
+    @Query("SELECT ep.insight FROM EventPredictionEntity ep " +
+            "WHERE ep.event.id = :eventId AND ep.insight IS NOT NULL " +
+            "ORDER BY ep.calculatedAt DESC LIMIT 1")
+    Optional<String> findLatestInsightByEventId(@Param("eventId") UUID eventId);
+
+    /**
+     * Upcoming published events whose latest prediction has no insight yet, soonest first.
+     * Returns only the columns the insight prompt needs, so no entities are loaded.
+     */
+    @Query(value = """
+            SELECT p.id AS predictionId, e.id AS eventId, e.title AS title,
+                   e.category::text AS category, e.type::text AS type, e.capacity AS capacity,
+                   e.registered_count AS registeredCount, e.interested_count AS interestedCount,
+                   e.views_count AS viewsCount, e.is_free AS isFree, e.start_date AS startDate,
+                   p.probability AS probability, p.level::text AS level, p.estimated_expected AS estimatedExpected
+            FROM events e
+            CROSS JOIN LATERAL (
+                SELECT ep.id, ep.probability, ep.level, ep.estimated_expected, ep.insight
+                FROM event_predictions ep
+                WHERE ep.event_id = e.id
+                ORDER BY ep.calculated_at DESC
+                LIMIT 1
+            ) p
+            WHERE e.status = 'published' AND e.start_date >= :today AND p.insight IS NULL
+            ORDER BY e.start_date, e.id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<PendingInsight> findPendingInsights(@Param("today") LocalDate today, @Param("limit") int limit);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE EventPredictionEntity ep SET ep.insight = :insight, ep.insightGeneratedAt = :generatedAt " +
+            "WHERE ep.id = :predictionId")
+    int saveInsight(@Param("predictionId") UUID predictionId,
+                    @Param("insight") String insight,
+                    @Param("generatedAt") OffsetDateTime generatedAt);
+
+    /**
+     * Lightweight history read served by idx_event_predictions_latest (event_id, calculated_at DESC).
+     * Only the charted columns are selected so thousands of rows stay cheap to materialize.
+     * Newest first, so a page limit keeps the most recent rows of the range.
+     */
+    @Query("SELECT ep.calculatedAt AS calculatedAt, ep.probability AS probability, " +
+            "ep.estimatedExpected AS estimatedExpected, ep.confidence AS confidence " +
+            "FROM EventPredictionEntity ep " +
+            "WHERE ep.event.id = :eventId AND ep.calculatedAt >= :from AND ep.calculatedAt <= :to " +
+            "ORDER BY ep.calculatedAt DESC")
+    List<PredictionHistoryPoint> findHistoryByEventId(@Param("eventId") UUID eventId,
+                                                      @Param("from") OffsetDateTime from,
+                                                      @Param("to") OffsetDateTime to,
+                                                      Pageable pageable);
+
+    /**
+     * Deletes one chunk of predictions older than the cutoff, keeping only the last prediction of each
+     * UTC day as the daily summary. Factor rows go with them through the ON DELETE CASCADE foreign key.
+     * Each call runs in its own short transaction so locks are held only for one chunk.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            WITH doomed AS (
+                SELECT id FROM (
+                    SELECT id, row_number() OVER (
+                        PARTITION BY date_trunc('day', calculated_at AT TIME ZONE 'UTC')
+                        ORDER BY calculated_at DESC) AS rn
+                    FROM event_predictions
+                    WHERE event_id = :eventId AND calculated_at < :cutoff
+                ) ranked
+                WHERE rn > 1
+                LIMIT :batchSize
+            )
+            DELETE FROM event_predictions p USING doomed d WHERE p.id = d.id
+            """, nativeQuery = true)
+    int deleteIntraDayChunk(@Param("eventId") UUID eventId,
+                            @Param("cutoff") OffsetDateTime cutoff,
+                            @Param("batchSize") int batchSize);
+
+    /**
+     * Deletes one chunk of predictions of an event, keeping only its most recent prediction.
+     * Used for completed events where only the final estimate is still relevant.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            WITH doomed AS (
+                SELECT id FROM event_predictions
+                WHERE event_id = :eventId
+                ORDER BY calculated_at DESC
+                OFFSET 1 LIMIT :batchSize
+            )
+            DELETE FROM event_predictions p USING doomed d WHERE p.id = d.id
+            """, nativeQuery = true)
+    int deleteAllButLatestChunk(@Param("eventId") UUID eventId, @Param("batchSize") int batchSize);
+
+    /**
+     * Projection of a single prediction row used for history charts
+     */
+    interface PredictionHistoryPoint {
+        OffsetDateTime getCalculatedAt();
+
+        Short getProbability();
+
+        Integer getEstimatedExpected();
+
+        Short getConfidence();
+    }
+
+    /**
+     * Prompt inputs of an event waiting for an insight
+     */
+    interface PendingInsight {
+        UUID getPredictionId();
+
+        UUID getEventId();
+
+        String getTitle();
+
+        String getCategory();
+
+        String getType();
+
+        Integer getCapacity();
+
+        Integer getRegisteredCount();
+
+        Integer getInterestedCount();
+
+        Integer getViewsCount();
+
+        Boolean getIsFree();
+
+        LocalDate getStartDate();
+
+        Short getProbability();
+
+        String getLevel();
+
+        Integer getEstimatedExpected();
+    }
 }
@@ -25,4 +25,38 @@ public interface EventRegistrationRepository extends JpaRepository<EventRegistra
     Long countAttendedByEventId(@Param("eventId") UUID eventId);
 
     boolean existsByEventIdAndUserId(UUID eventId, UUID userId);
+
+    /**
+     * Registration outcomes of every completed event: registered, attended and registered within the
+     * late window before the start date. Feeds the attendance Monte Carlo simulation.
+     */
+    @Query(value = """
+            SELECT e.category::text AS category,
+                   e.type::text AS type,
+                   COUNT(*) FILTER (WHERE r.status <> 'cancelled') AS registered,
+                   COUNT(*) FILTER (WHERE r.attended) AS attended,
+                   COUNT(*) FILTER (WHERE r.status <> 'cancelled'
+                       AND r.registered_at >= e.start_date - CAST(:lateWindowDays AS integer)) AS lateRegistered
+            FROM events e
+            JOIN event_registrations r ON r.event_id = e.id
+            WHERE e.status = 'completed'
+            GROUP BY e.id, e.category, e.type
+            HAVING COUNT(*) FILTER (WHERE r.status <> 'cancelled') > 0
+            """, nativeQuery = true)
+    List<AttendanceOutcome> findCompletedEventOutcomes(@Param("lateWindowDays") int lateWindowDays);
+
+    /**
+     * Projection of the registration outcome of one completed event
+     */
+    interface AttendanceOutcome {
+        String getCategory();
+
+        String getType();
+
+        Long getRegistered();
+
+        Long getAttended();
+
+        Long getLateRegistered();
+    }
 }
@@ -2,11 +2,13 @@ package com.predictifylabs.backend.infrastructure.adapters.output.persistence.re
 
 import com.predictifylabs.backend.domain.model.EventStatus;
 import com.predictifylabs.backend.infrastructure.adapters.output.persistence.entity.EventEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -31,4 +33,12 @@ public interface EventRepository extends JpaRepository<EventEntity, UUID> {
 
     @Query("SELECT e FROM EventEntity e WHERE e.status = 'PUBLISHED' AND LOWER(e.title) LIKE LOWER(CONCAT('%', :keyword, '%'))")
     List<EventEntity> searchByKeyword(@Param("keyword") String keyword);
+
+    @Query("SELECT e.id FROM EventEntity e WHERE e.id > :afterId ORDER BY e.id")
+    List<UUID> findIdsAfter(@Param("afterId") UUID afterId, Pageable pageable);
+
+    @Query("SELECT e.id FROM EventEntity e WHERE e.status = 'COMPLETED' AND e.completedAt < :completedBefore AND e.id > :afterId ORDER BY e.id")
+    List<UUID> findCompletedIdsAfter(@Param("completedBefore") OffsetDateTime completedBefore,
+                                     @Param("afterId") UUID afterId,
+                                     Pageable pageable);
 }
@@ -1,11 +1,15 @@
 package com.predictifylabs.backend.infrastructure.adapters.output.persistence.repository;
 
 import com.predictifylabs.backend.infrastructure.adapters.output.persistence.entity.RefreshTokenEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -15,10 +19,68 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshTokenEntity
     @Query("SELECT t FROM RefreshTokenEntity t WHERE t.user.id = :userId AND t.revokedAt IS NULL AND t.expiresAt > :now")
     List<RefreshTokenEntity> findAllValidTokenByUser(@Param("userId") UUID userId, @Param("now") OffsetDateTime now);
 
-    Optional<RefreshTokenEntity> findByTokenHash(String tokenHash);
+    /**
+     * Token by hash, through the unique index on token_hash, with its user
+     */
+    @Query("SELECT t FROM RefreshTokenEntity t JOIN FETCH t.user WHERE t.tokenHash = :tokenHash")
+    Optional<RefreshTokenEntity> findByTokenHash(@Param("tokenHash") String tokenHash);
 
-    @Query("SELECT t FROM RefreshTokenEntity t WHERE t.expiresAt < :now")
-    List<RefreshTokenEntity> findExpiredTokens(@Param("now") OffsetDateTime now);
+    /**
+     * Revoke a token as rotated unless it already is revoked; returns 0 if another request revoked it first
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE RefreshTokenEntity t SET t.revokedAt = :now, t.revokeReason = '" + RefreshTokenEntity.REVOKED_ROTATED + "' " +
+            "WHERE t.id = :id AND t.revokedAt IS NULL")
+    int revokeIfActive(@Param("id") UUID id, @Param("now") OffsetDateTime now);
+
+    @Query("SELECT t.revokeReason FROM RefreshTokenEntity t WHERE t.id = :id")
+    Optional<String> findRevokeReason(@Param("id") UUID id);
+
+    /**
+     * Revoke every active token of a user in one statement
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE RefreshTokenEntity t SET t.revokedAt = :now, t.revokeReason = :reason " +
+            "WHERE t.user.id = :userId AND t.revokedAt IS NULL")
+    int revokeAllByUser(@Param("userId") UUID userId, @Param("now") OffsetDateTime now,
+                        @Param("reason") String reason);
+
+    /**
+     * Next chunk of unrevoked tokens expired before now, after the given key in (expiresAt, id) order
+     */
+    @Query("SELECT t.id AS id, t.expiresAt AS at FROM RefreshTokenEntity t " +
+            "WHERE t.revokedAt IS NULL AND t.expiresAt < :now " +
+            "AND (t.expiresAt > :afterAt OR (t.expiresAt = :afterAt AND t.id > :afterId)) " +
+            "ORDER BY t.expiresAt, t.id")
+    List<PurgeKey> findExpiredAfter(@Param("now") OffsetDateTime now,
+                                    @Param("afterAt") OffsetDateTime afterAt,
+                                    @Param("afterId") UUID afterId,
+                                    Pageable pageable);
+
+    /**
+     * Next chunk of tokens revoked before the cutoff, after the given key in (revokedAt, id) order
+     */
+    @Query("SELECT t.id AS id, t.revokedAt AS at FROM RefreshTokenEntity t " +
+            "WHERE t.revokedAt < :revokedBefore " +
+            "AND (t.revokedAt > :afterAt OR (t.revokedAt = :afterAt AND t.id > :afterId)) " +
+            "ORDER BY t.revokedAt, t.id")
+    List<PurgeKey> findRevokedAfter(@Param("revokedBefore") OffsetDateTime revokedBefore,
+                                    @Param("afterAt") OffsetDateTime afterAt,
+                                    @Param("afterId") UUID afterId,
+                                    Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RefreshTokenEntity t WHERE t.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<UUID> ids);
 
     void deleteByUser_Id(UUID userId);
+
+    interface PurgeKey {
+        UUID getId();
+
+        OffsetDateTime getAt();
+    }
 }
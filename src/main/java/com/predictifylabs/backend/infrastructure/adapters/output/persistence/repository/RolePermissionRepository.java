@@ -15,4 +15,17 @@ public interface RolePermissionRepository extends JpaRepository<RolePermissionEn
 
     @Query("SELECT rp.permission.id FROM RolePermissionEntity rp WHERE rp.role = :role")
     List<String> findPermissionIdsByRole(@Param("role") Role role);
+
+    /**
+     * Every grant as plain strings; the role is read as text because the database enum is lowercase
+     */
+    @Query(value = "SELECT CAST(rp.role AS text) AS role, rp.permission_id AS permissionId FROM role_permissions rp",
+            nativeQuery = true)
+    List<Grant> findAllGrants();
+
+    interface Grant {
+        String getRole();
+
+        String getPermissionId();
+    }
 }
@@ -3,8 +3,10 @@ package com.predictifylabs.backend.infrastructure.adapters.output.persistence.re
 import com.predictifylabs.backend.domain.model.Role;
 import com.predictifylabs.backend.infrastructure.adapters.output.persistence.entity.UserEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -21,4 +23,24 @@ public interface UserRepository extends JpaRepository<UserEntity, UUID> {
 
     @Query("SELECT u FROM UserEntity u WHERE u.role = :role AND u.isActive = true")
     List<UserEntity> findActiveByRole(@Param("role") Role role);
+
+    /**
+     * Users whose access tokens were revoked at least once; everyone else is on version 0
+     */
+    @Query("SELECT u.id AS userId, u.tokenVersion AS tokenVersion FROM UserEntity u WHERE u.tokenVersion > 0")
+    List<TokenVersion> findTokenVersions();
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE UserEntity u SET u.tokenVersion = u.tokenVersion + 1 WHERE u.id = :userId")
+    int incrementTokenVersion(@Param("userId") UUID userId);
+
+    @Query("SELECT u.tokenVersion FROM UserEntity u WHERE u.id = :userId")
+    Optional<Integer> findTokenVersion(@Param("userId") UUID userId);
+
+    interface TokenVersion {
+        UUID getUserId();
+
+        Integer getTokenVersion();
+    }
 }
@@ -0,0 +1,85 @@
+package com.predictifylabs.backend.infrastructure.config;
+
+import com.predictifylabs.backend.domain.model.AiUseCase;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Configuration
+@ConfigurationProperties(prefix = "application.ai.cache")
+public class AiCacheProperties {
+
+    private boolean enabled = true;
+    private int maxEntries = 1000;
+    private Map<AiUseCase, Duration> ttl = new EnumMap<>(AiUseCase.class);
+    private final Disk disk = new Disk();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public Map<AiUseCase, Duration> getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Map<AiUseCase, Duration> ttl) {
+        this.ttl = ttl;
+    }
+
+    public Disk getDisk() {
+        return disk;
+    }
+
+    /**
+     * TTL for a use case; use cases without one are not cached
+     */
+    public Duration ttlFor(AiUseCase useCase) {
+        return ttl.getOrDefault(useCase, Duration.ZERO);
+    }
+
+    public static class Disk {
+
+        private boolean enabled = false;
+        private String path = "data/ai-response-cache.bin";
+        private int sizeMb = 64;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public int getSizeMb() {
+            return sizeMb;
+        }
+
+        public void setSizeMb(int sizeMb) {
+            this.sizeMb = sizeMb;
+        }
+    }
+}
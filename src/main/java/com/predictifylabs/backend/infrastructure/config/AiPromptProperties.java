@@ -0,0 +1,48 @@
+package com.predictifylabs.backend.infrastructure.config;
+
+import com.predictifylabs.backend.domain.model.AiUseCase;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Configuration
+@ConfigurationProperties(prefix = "application.ai.prompt")
+public class AiPromptProperties {
+
+    private int charsPerToken = 4;
+    private int defaultBudget = 1000;
+    private Map<AiUseCase, Integer> budgets = new EnumMap<>(AiUseCase.class);
+
+    public int getCharsPerToken() {
+        return charsPerToken;
+    }
+
+    public void setCharsPerToken(int charsPerToken) {
+        this.charsPerToken = charsPerToken;
+    }
+
+    public int getDefaultBudget() {
+        return defaultBudget;
+    }
+
+    public void setDefaultBudget(int defaultBudget) {
+        this.defaultBudget = defaultBudget;
+    }
+
+    public Map<AiUseCase, Integer> getBudgets() {
+        return budgets;
+    }
+
+    public void setBudgets(Map<AiUseCase, Integer> budgets) {
+        this.budgets = budgets;
+    }
+
+    /**
+     * Input token budget of a use case, system instruction included
+     */
+    public int budgetFor(AiUseCase useCase) {
+        return budgets.getOrDefault(useCase, defaultBudget);
+    }
+}
@@ -0,0 +1,124 @@
+package com.predictifylabs.backend.infrastructure.config;
+
+import com.predictifylabs.backend.domain.model.Role;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Configuration
+@ConfigurationProperties(prefix = "application.ai.quota")
+public class AiQuotaProperties {
+
+    private boolean enabled = true;
+    private Duration window = Duration.ofHours(1);
+    private int buckets = 12;
+    private int charsPerToken = 4;
+    private int reservedOutputTokens = 512;
+    private Map<Role, Limit> users = new EnumMap<>(Role.class);
+    private Map<Role, Limit> roles = new EnumMap<>(Role.class);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    public void setWindow(Duration window) {
+        this.window = window;
+    }
+
+    public int getBuckets() {
+        return buckets;
+    }
+
+    public void setBuckets(int buckets) {
+        this.buckets = buckets;
+    }
+
+    public int getCharsPerToken() {
+        return charsPerToken;
+    }
+
+    public void setCharsPerToken(int charsPerToken) {
+        this.charsPerToken = charsPerToken;
+    }
+
+    public int getReservedOutputTokens() {
+        return reservedOutputTokens;
+    }
+
+    public void setReservedOutputTokens(int reservedOutputTokens) {
+        this.reservedOutputTokens = reservedOutputTokens;
+    }
+
+    public Map<Role, Limit> getUsers() {
+        return users;
+    }
+
+    public void setUsers(Map<Role, Limit> users) {
+        this.users = users;
+    }
+
+    public Map<Role, Limit> getRoles() {
+        return roles;
+    }
+
+    public void setRoles(Map<Role, Limit> roles) {
+        this.roles = roles;
+    }
+
+    /**
+     * Limit of one user with the given role; unlimited when not configured
+     */
+    public Limit userLimit(Role role) {
+        return users.getOrDefault(role, Limit.UNLIMITED);
+    }
+
+    /**
+     * Limit shared by all users with the given role; unlimited when not configured
+     */
+    public Limit roleLimit(Role role) {
+        return roles.getOrDefault(role, Limit.UNLIMITED);
+    }
+
+    public static class Limit {
+
+        static final Limit UNLIMITED = new Limit(Long.MAX_VALUE, Long.MAX_VALUE);
+
+        private long requests;
+        private long tokens;
+
+        public Limit() {
+        }
+
+        public Limit(long requests, long tokens) {
+            this.requests = requests;
+            this.tokens = tokens;
+        }
+
+        public long getRequests() {
+            return requests;
+        }
+
+        public void setRequests(long requests) {
+            this.requests = requests;
+        }
+
+        public long getTokens() {
+            return tokens;
+        }
+
+        public void setTokens(long tokens) {
+            this.tokens = tokens;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.predictifylabs.backend.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Configuration
+@ConfigurationProperties(prefix = "application.audit")
+public class AuditProperties {
+
+    private boolean enabled = true;
+    private int queueCapacity = 10000;
+    private int batchSize = 200;
+    private List<String> excludedFields = List.of("updated_at");
+    private Map<String, List<String>> excludedFieldsByType = new HashMap<>();
+    private Partitions partitions = new Partitions();
+    private Query query = new Query();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public List<String> getExcludedFields() {
+        return excludedFields;
+    }
+
+    public void setExcludedFields(List<String> excludedFields) {
+        this.excludedFields = excludedFields;
+    }
+
+    public Map<String, List<String>> getExcludedFieldsByType() {
+        return excludedFieldsByType;
+    }
+
+    public void setExcludedFieldsByType(Map<String, List<String>> excludedFieldsByType) {
+        this.excludedFieldsByType = excludedFieldsByType;
+    }
+
+    public Partitions getPartitions() {
+        return partitions;
+    }
+
+    public void setPartitions(Partitions partitions) {
+        this.partitions = partitions;
+    }
+
+    public Query getQuery() {
+        return query;
+    }
+
+    public void setQuery(Query query) {
+        this.query = query;
+    }
+
+    /**
+     * Fields never recorded for the entity type: the global list plus the type's own
+     */
+    public Set<String> excludedFor(String entityType) {
+        Set<String> excluded = new HashSet<>(excludedFields);
+        excluded.addAll(excludedFieldsByType.getOrDefault(entityType, List.of()));
+        return excluded;
+    }
+
+    public static class Partitions {
+
+        private boolean enabled = true;
+        private int monthsAhead = 3;
+        private int retentionMonths = 12;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMonthsAhead() {
+            return monthsAhead;
+        }
+
+        public void setMonthsAhead(int monthsAhead) {
+            this.monthsAhead = monthsAhead;
+        }
+
+        public int getRetentionMonths() {
+            return retentionMonths;
+        }
+
+        public void setRetentionMonths(int retentionMonths) {
+            this.retentionMonths = retentionMonths;
+        }
+    }
+
+    public static class Query {
+
+        private Duration defaultRange = Duration.ofDays(30);
+        private Duration maxRange = Duration.ofDays(366);
+        private int defaultPageSize = 50;
+        private int maxPageSize = 200;
+
+        public Duration getDefaultRange() {
+            return defaultRange;
+        }
+
+        public void setDefaultRange(Duration defaultRange) {
+            this.defaultRange = defaultRange;
+        }
+
+        public Duration getMaxRange() {
+            return maxRange;
+        }
+
+        public void setMaxRange(Duration maxRange) {
+            this.maxRange = maxRange;
+        }
+
+        public int getDefaultPageSize() {
+            return defaultPageSize;
+        }
+
+        public void setDefaultPageSize(int defaultPageSize) {
+            this.defaultPageSize = defaultPageSize;
+        }
+
+        public int getMaxPageSize() {
+            return maxPageSize;
+        }
+
+        public void setMaxPageSize(int maxPageSize) {
+            this.maxPageSize = maxPageSize;
+        }
+    }
+}
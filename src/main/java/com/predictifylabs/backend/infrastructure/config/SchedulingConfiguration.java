@@ -0,0 +1,12 @@
+package com.predictifylabs.backend.infrastructure.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables Spring's scheduled task execution for background maintenance jobs
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfiguration {
+}
@@ -1,6 +1,7 @@
 package com.predictifylabs.backend.infrastructure.config;
 
 import com.predictifylabs.backend.infrastructure.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -28,7 +29,9 @@ public class SecurityConfiguration {
                 .csrf(AbstractHttpConfigurer::disable)
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .authorizeHttpRequests(req ->
-                        req.requestMatchers(
+                        // Async dispatches complete streaming responses whose initial request was already authorized
+                        req.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        .requestMatchers(
                                 // Auth endpoints
                                 "/api/v1/auth/**",
                                 // Swagger/OpenAPI
@@ -47,7 +50,10 @@ public class SecurityConfiguration {
                                 "/api/v1/organizers/{id}",
                                 "/api/v1/organizers/{id}/events",
                                 // Public prediction endpoints
-                                "/api/v1/predictions/events/**"
+                                "/api/v1/predictions/events/**",
+                                // Frontend route authorization, answered for anonymous users too
+                                "/api/v1/routes/accessible",
+                                "/api/v1/routes/check"
                         ).permitAll()
                         .anyRequest().authenticated()
                 )
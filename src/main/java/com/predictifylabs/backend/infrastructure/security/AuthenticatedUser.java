@@ -0,0 +1,30 @@
+package com.predictifylabs.backend.infrastructure.security;
+
+import com.predictifylabs.backend.domain.model.Role;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.Authentication;
+
+import java.util.UUID;
+
+/**
+ * Principal of a request authenticated by access token, built from the token's claims
+ * without loading the user. {@link #getName()} is the email, as with the previous UserDetails principal.
+ * sessionId is null for tokens issued before sessions were tracked.
+ */
+public record AuthenticatedUser(UUID id, String email, Role role, UUID sessionId) implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    /**
+     * The principal of an authentication made by {@link JwtAuthenticationFilter}
+     */
+    public static AuthenticatedUser of(Authentication auth) {
+        if (auth == null || !(auth.getPrincipal() instanceof AuthenticatedUser user)) {
+            throw new RuntimeException("User not authenticated");
+        }
+        return user;
+    }
+}
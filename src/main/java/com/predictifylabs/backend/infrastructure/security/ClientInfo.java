@@ -0,0 +1,76 @@
+package com.predictifylabs.backend.infrastructure.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Client details of a login request, as shown in the user's session list.
+ * Device, browser and OS are a coarse reading of the User-Agent header.
+ */
+public record ClientInfo(String ipAddress, String deviceType, String browser, String os) {
+
+    public static final ClientInfo UNKNOWN = new ClientInfo(null, null, null, null);
+
+    public static ClientInfo from(HttpServletRequest request) {
+        String userAgent = request.getHeader("User-Agent");
+        if (userAgent == null) {
+            return new ClientInfo(request.getRemoteAddr(), null, null, null);
+        }
+        return new ClientInfo(request.getRemoteAddr(), deviceType(userAgent), browser(userAgent), os(userAgent));
+    }
+
+    /**
+     * e.g. "Firefox on Windows"
+     */
+    public String deviceName() {
+        if (browser == null && os == null) {
+            return null;
+        }
+        return (browser != null ? browser : "Unknown browser") + " on " + (os != null ? os : "unknown OS");
+    }
+
+    private static String deviceType(String userAgent) {
+        if (userAgent.contains("iPad") || userAgent.contains("Tablet")) {
+            return "tablet";
+        }
+        return userAgent.contains("Mobi") ? "mobile" : "desktop";
+    }
+
+    private static String browser(String userAgent) {
+        // Order matters: Edge and Opera also announce Chrome, and Chrome also announces Safari
+        if (userAgent.contains("Edg/")) {
+            return "Edge";
+        }
+        if (userAgent.contains("OPR/")) {
+            return "Opera";
+        }
+        if (userAgent.contains("Chrome/")) {
+            return "Chrome";
+        }
+        if (userAgent.contains("Firefox/")) {
+            return "Firefox";
+        }
+        if (userAgent.contains("Safari/")) {
+            return "Safari";
+        }
+        return "Other";
+    }
+
+    private static String os(String userAgent) {
+        if (userAgent.contains("Windows")) {
+            return "Windows";
+        }
+        if (userAgent.contains("Android")) {
+            return "Android";
+        }
+        if (userAgent.contains("iPhone") || userAgent.contains("iPad")) {
+            return "iOS";
+        }
+        if (userAgent.contains("Mac OS X")) {
+            return "macOS";
+        }
+        if (userAgent.contains("Linux")) {
+            return "Linux";
+        }
+        return "Other";
+    }
+}
@@ -0,0 +1,98 @@
+package com.predictifylabs.backend.infrastructure.security;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Lock-free count-min sketch: approximate per-key counts in fixed memory, never under-counting.
+ * Each row hashes the key's UTF-8 bytes with MurmurHash3 under its own seed, so rows collide
+ * independently. With width w and depth d, an estimate exceeds the true count by more than 2N/w
+ * (N = total added) with probability at most 2^-d.
+ */
+final class CountMinSketch {
+
+    private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F, 0x165667B1, 0xD3A2646C};
+
+    private final int width;
+    private final int depth;
+    private final AtomicIntegerArray counters;
+
+    CountMinSketch(int width, int depth) {
+        if (Integer.bitCount(width) != 1 || depth < 1 || depth > SEEDS.length) {
+            throw new IllegalArgumentException("width must be a power of two and depth between 1 and " + SEEDS.length);
+        }
+        this.width = width;
+        this.depth = depth;
+        this.counters = new AtomicIntegerArray(width * depth);
+    }
+
+    /**
+     * Add one occurrence and return the new estimate
+     */
+    int add(String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.incrementAndGet(index(row, bytes)));
+        }
+        return estimate;
+    }
+
+    int estimate(String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(index(row, bytes)));
+        }
+        return estimate;
+    }
+
+    private int index(int row, byte[] key) {
+        return row * width + (murmur3(key, SEEDS[row]) & (width - 1));
+    }
+
+    /**
+     * MurmurHash3 x86 32-bit
+     */
+    static int murmur3(byte[] data, int seed) {
+        int h = seed;
+        int blocks = data.length / 4;
+        for (int i = 0; i < blocks; i++) {
+            int offset = i * 4;
+            int k = (data[offset] & 0xFF)
+                    | (data[offset + 1] & 0xFF) << 8
+                    | (data[offset + 2] & 0xFF) << 16
+                    | (data[offset + 3] & 0xFF) << 24;
+            h ^= mixK(k);
+            h = Integer.rotateLeft(h, 13) * 5 + 0xE6546B64;
+        }
+
+        int tail = blocks * 4;
+        int k = 0;
+        switch (data.length & 3) {
+            case 3:
+                k ^= (data[tail + 2] & 0xFF) << 16;
+            case 2:
+                k ^= (data[tail + 1] & 0xFF) << 8;
+            case 1:
+                k ^= data[tail] & 0xFF;
+                h ^= mixK(k);
+            default:
+                break;
+        }
+
+        h ^= data.length;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private static int mixK(int k) {
+        k *= 0xCC9E2D51;
+        k = Integer.rotateLeft(k, 15);
+        return k * 0x1B873593;
+    }
+}
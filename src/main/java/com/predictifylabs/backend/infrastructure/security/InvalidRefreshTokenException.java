@@ -0,0 +1,11 @@
+package com.predictifylabs.backend.infrastructure.security;
+
+/**
+ * Thrown when a refresh token is malformed, expired, revoked or already used
+ */
+public class InvalidRefreshTokenException extends RuntimeException {
+
+    public InvalidRefreshTokenException(String message) {
+        super(message);
+    }
+}
@@ -1,27 +1,41 @@
 package com.predictifylabs.backend.infrastructure.security;
 
+import com.predictifylabs.backend.application.service.SessionService;
+import com.predictifylabs.backend.infrastructure.adapters.output.persistence.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
+/**
+ * Authenticates requests from the bearer token alone: the principal is built from the verified
+ * claims (user id, role, token version), so no user lookup is made per request.
+ * Tokens whose version is below the user's current one, and refresh tokens, are ignored.
+ * Activity of the token's session is recorded in memory and written later.
+ */
 @Component
 @RequiredArgsConstructor
+@Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final TokenVersionRegistry tokenVersions;
+    private final UserRepository userRepository;
+    private final SessionService sessionActivity;
 
     @Override
     protected void doFilterInternal(
@@ -35,31 +49,50 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         final String authHeader = request.getHeader("Authorization");
-        final String jwt;
-        final String userEmail;
-
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")
+                || SecurityContextHolder.getContext().getAuthentication() != null) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        jwt = authHeader.substring(7);
-        userEmail = jwtService.extractUsername(jwt);
+        final Claims claims;
+        try {
+            claims = jwtService.extractAllClaims(authHeader.substring(7));
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Rejected bearer token: {}", e.getMessage());
+            filterChain.doFilter(request, response);
+            return;
+        }
 
-        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+        if (jwtService.isRefreshToken(claims)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
 
-            // Validate JWT token
-            if (jwtService.isTokenValid(jwt, userDetails)) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities());
-                authToken.setDetails(
-                        new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
+        AuthenticatedUser user = jwtService.toPrincipal(claims);
+        if (user == null) {
+            user = legacyPrincipal(claims);
+        }
+        if (user != null && tokenVersions.isCurrent(user.id(), jwtService.tokenVersion(claims))) {
+            var authToken = new UsernamePasswordAuthenticationToken(
+                    user,
+                    null,
+                    List.of(new SimpleGrantedAuthority("ROLE_" + user.role().name())));
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authToken);
+            if (user.sessionId() != null) {
+                sessionActivity.touch(user.sessionId());
             }
         }
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Tokens issued before the id and role claims existed still need one lookup until they expire
+     */
+    private AuthenticatedUser legacyPrincipal(Claims claims) {
+        return userRepository.findByEmail(claims.getSubject())
+                .map(user -> new AuthenticatedUser(user.getId(), user.getEmail(), user.getRole(), null))
+                .orElse(null);
+    }
 }
@@ -1,23 +1,50 @@
 package com.predictifylabs.backend.infrastructure.security;
 
+import com.predictifylabs.backend.domain.model.Role;
+import com.predictifylabs.backend.infrastructure.adapters.output.persistence.entity.UserEntity;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
+/**
+ * Issues and verifies JWTs.
+ * The signing key and parser are built once. Verified tokens are remembered by SHA-256 hash
+ * with their claims until they expire, in a bounded map, so a client sending the same token
+ * on every request pays for signature verification and JSON parsing only once.
+ */
 @Service
 public class JwtService {
 
+    // Access token claims that let requests be authenticated without loading the user
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_ROLE = "role";
+    static final String CLAIM_TOKEN_VERSION = "ver";
+    static final String CLAIM_SESSION_ID = "sid";
+    // Marks refresh tokens, which are only accepted by the refresh endpoint
+    static final String CLAIM_TOKEN_TYPE = "typ";
+    static final String REFRESH_TOKEN_TYPE = "refresh";
+
     // En prod esto debe ir en environment variable
     @Value("${application.security.jwt.secret-key:404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970}")
     private String secretKey;
@@ -28,6 +55,21 @@ public class JwtService {
     @Value("${application.security.jwt.refresh-token.expiration:604800000}") // 7 dias
     private long refreshExpiration;
 
+    @Value("${application.security.jwt.claims-cache-size:10000}")
+    private int claimsCacheSize;
+
+    private Key signInKey;
+    private JwtParser parser;
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        signInKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signInKey)
+                .build();
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -41,47 +83,140 @@ public class JwtService {
         return generateToken(new HashMap<>(), userDetails);
     }
 
+    /**
+     * Access token carrying the user's id, role and current token version
+     */
+    public String generateToken(UserEntity user, int tokenVersion) {
+        return generateToken(user, tokenVersion, null);
+    }
+
+    /**
+     * Access token of a login session, whose id is carried so requests can record session activity
+     */
+    public String generateToken(UserEntity user, int tokenVersion, UUID sessionId) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_USER_ID, user.getId().toString());
+        claims.put(CLAIM_ROLE, user.getRole().name());
+        claims.put(CLAIM_TOKEN_VERSION, tokenVersion);
+        if (sessionId != null) {
+            claims.put(CLAIM_SESSION_ID, sessionId.toString());
+        }
+        return buildToken(claims, user.getEmail(), jwtExpiration);
+    }
+
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
         return buildToken(extraClaims, userDetails, jwtExpiration);
     }
 
+    /**
+     * Refresh token with a unique id, so tokens issued within the same second still differ
+     */
     public String generateRefreshToken(UserDetails userDetails) {
-        return buildToken(new HashMap<>(), userDetails, refreshExpiration);
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_TOKEN_TYPE, REFRESH_TOKEN_TYPE);
+        claims.put(Claims.ID, UUID.randomUUID().toString());
+        return buildToken(claims, userDetails, refreshExpiration);
+    }
+
+    public Duration refreshTokenTtl() {
+        return Duration.ofMillis(refreshExpiration);
+    }
+
+    public boolean isRefreshToken(Claims claims) {
+        return REFRESH_TOKEN_TYPE.equals(claims.get(CLAIM_TOKEN_TYPE, String.class));
     }
 
     private String buildToken(Map<String, Object> extraClaims, UserDetails userDetails, long expiration) {
+        return buildToken(extraClaims, userDetails.getUsername(), expiration);
+    }
+
+    private String buildToken(Map<String, Object> extraClaims, String subject, long expiration) {
         return Jwts.builder()
                 .setClaims(extraClaims)
-                .setSubject(userDetails.getUsername())
+                .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(signInKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        // Expired tokens fail verification, so one parse covers both checks
+        return extractUsername(token).equals(userDetails.getUsername());
+    }
+
+    /**
+     * Principal described by a verified token's claims, or null for tokens issued without them
+     */
+    public AuthenticatedUser toPrincipal(Claims claims) {
+        String userId = claims.get(CLAIM_USER_ID, String.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        if (userId == null || role == null) {
+            return null;
+        }
+        String sessionId = claims.get(CLAIM_SESSION_ID, String.class);
+        return new AuthenticatedUser(UUID.fromString(userId), claims.getSubject(), Role.valueOf(role),
+                sessionId != null ? UUID.fromString(sessionId) : null);
+    }
+
+    /**
+     * Token version claim; tokens issued without one count as version 0
+     */
+    public int tokenVersion(Claims claims) {
+        Integer version = claims.get(CLAIM_TOKEN_VERSION, Integer.class);
+        return version != null ? version : 0;
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    /**
+     * Verifies signature and expiry and returns the claims.
+     * Throws a JwtException if the token is invalid or expired.
+     */
+    public Claims extractAllClaims(String token) {
+        String hash = hashToken(token);
+        long now = System.currentTimeMillis();
+        var verified = verifiedTokens.get(hash);
+        if (verified != null) {
+            if (verified.expiresAt() > now) {
+                return verified.claims();
+            }
+            verifiedTokens.remove(hash, verified);
+        }
+
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        if (claims.getExpiration() != null) {
+            if (verifiedTokens.size() >= claimsCacheSize) {
+                evict(now);
+            }
+            verifiedTokens.put(hash, new VerifiedToken(claims, claims.getExpiration().getTime()));
+        }
+        return claims;
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    /**
+     * Drop expired entries; if the map is still full, drop arbitrary ones down to 90% of its bound
+     */
+    private void evict(long now) {
+        verifiedTokens.values().removeIf(verified -> verified.expiresAt() <= now);
+        Iterator<String> keys = verifiedTokens.keySet().iterator();
+        int target = claimsCacheSize * 9 / 10;
+        while (verifiedTokens.size() > target && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * SHA-256 hex digest of a token, as stored instead of the token itself
+     */
+    public static String hashToken(String token) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private record VerifiedToken(Claims claims, long expiresAt) {
     }
 }
@@ -0,0 +1,18 @@
+package com.predictifylabs.backend.infrastructure.security;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a login is refused without checking the password because its email or client
+ * address failed too often recently
+ */
+@Getter
+public class LoginThrottledException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public LoginThrottledException(long retryAfterSeconds) {
+        super("Too many failed login attempts");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
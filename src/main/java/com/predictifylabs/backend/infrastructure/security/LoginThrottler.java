@@ -0,0 +1,296 @@
+package com.predictifylabs.backend.infrastructure.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory brute-force protection for logins, checked before any password is hashed.
+ * Failed logins drain a token bucket per email and per client address, and a login is refused
+ * while either bucket is empty; buckets refill over time and a successful login clears the
+ * email's. Addresses are first counted in a count-min sketch, so only addresses that failed
+ * several times in the current window get a bucket of their own and one-off failures from many
+ * addresses stay in fixed memory. Buckets live in lock-striped shards.
+ * Failure counts reach users.failed_login_attempts only through a periodic batched flush; the
+ * pending counts are keyed by normalized email and capped like the buckets, so attempts with
+ * random emails cannot grow memory or the flush without bound.
+ */
+@Component
+@Slf4j
+public class LoginThrottler {
+
+    private static final int SHARDS = 64;
+    private static final String ADD_FAILED_ATTEMPTS =
+            "UPDATE users SET failed_login_attempts = LEAST(COALESCE(failed_login_attempts, 0) + ?, 32767) "
+                    + "WHERE lower(email) = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final Limit emailLimit;
+    private final Limit ipLimit;
+    private final int maxBucketsPerShard;
+    private final int maxPendingFailures;
+    private final int ipTrackThreshold;
+    private final Duration sketchWindow;
+    private final int sketchWidth;
+    private final int sketchDepth;
+
+    private final Shard[] emailShards = newShards();
+    private final Shard[] ipShards = newShards();
+    private volatile CountMinSketch currentIpFailures;
+    private volatile CountMinSketch previousIpFailures;
+    private volatile long windowStartedAt = System.nanoTime();
+    // Normalized email -> failures not yet added to the user row
+    private final Map<String, Integer> pendingFailures = new ConcurrentHashMap<>();
+
+    private record Limit(double capacity, double refillPerNano) {
+
+        static Limit of(int capacity, int perMinute) {
+            return new Limit(capacity, perMinute / (double) Duration.ofMinutes(1).toNanos());
+        }
+    }
+
+    private static final class Bucket {
+        private double tokens;
+        private long updatedAt;
+
+        private Bucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.updatedAt = now;
+        }
+
+        private void refill(Limit limit, long now) {
+            tokens = Math.min(limit.capacity(), tokens + (now - updatedAt) * limit.refillPerNano());
+            updatedAt = now;
+        }
+    }
+
+    private static final class Shard {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<String, Bucket> buckets = new HashMap<>();
+    }
+
+    public LoginThrottler(
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${application.security.login-throttle.email.burst:5}") int emailBurst,
+            @Value("${application.security.login-throttle.email.per-minute:1}") int emailPerMinute,
+            @Value("${application.security.login-throttle.ip.burst:20}") int ipBurst,
+            @Value("${application.security.login-throttle.ip.per-minute:10}") int ipPerMinute,
+            @Value("${application.security.login-throttle.ip.track-after:5}") int ipTrackThreshold,
+            @Value("${application.security.login-throttle.max-buckets:100000}") int maxBuckets,
+            @Value("${application.security.login-throttle.sketch.window:PT10M}") Duration sketchWindow,
+            @Value("${application.security.login-throttle.sketch.width:16384}") int sketchWidth,
+            @Value("${application.security.login-throttle.sketch.depth:4}") int sketchDepth
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        this.emailLimit = Limit.of(emailBurst, emailPerMinute);
+        this.ipLimit = Limit.of(ipBurst, ipPerMinute);
+        this.maxBucketsPerShard = Math.max(1, maxBuckets / SHARDS);
+        this.maxPendingFailures = maxBuckets;
+        this.ipTrackThreshold = ipTrackThreshold;
+        this.sketchWindow = sketchWindow;
+        this.sketchWidth = sketchWidth;
+        this.sketchDepth = sketchDepth;
+        this.currentIpFailures = new CountMinSketch(sketchWidth, sketchDepth);
+        this.previousIpFailures = new CountMinSketch(sketchWidth, sketchDepth);
+    }
+
+    /**
+     * Refuse the attempt with {@link LoginThrottledException} if its email or address is out of attempts
+     */
+    public void check(String email, String ipAddress) {
+        long now = System.nanoTime();
+        long retryAfter = Math.max(
+                retryAfterSeconds(emailShards, normalize(email), emailLimit, now),
+                retryAfterSeconds(ipShards, ipAddress, ipLimit, now));
+        if (retryAfter > 0) {
+            meterRegistry.counter("auth.login.attempts", "outcome", "throttled").increment();
+            throw new LoginThrottledException(retryAfter);
+        }
+    }
+
+    public void recordFailure(String email, String ipAddress) {
+        long now = System.nanoTime();
+        String key = normalize(email);
+        if (key != null) {
+            consume(emailShards, key, emailLimit, now);
+            addPendingFailure(key);
+        }
+        if (ipAddress != null) {
+            rotateWindowIfDue(now);
+            int failures = currentIpFailures.add(ipAddress) + previousIpFailures.estimate(ipAddress);
+            if (failures >= ipTrackThreshold) {
+                consume(ipShards, ipAddress, ipLimit, now);
+            }
+        }
+        meterRegistry.counter("auth.login.attempts", "outcome", "failed").increment();
+    }
+
+    public void recordSuccess(String email) {
+        String key = normalize(email);
+        if (key == null) {
+            return;
+        }
+        Shard shard = shard(emailShards, key);
+        shard.lock.lock();
+        try {
+            shard.buckets.remove(key);
+        } finally {
+            shard.lock.unlock();
+        }
+        // The successful login resets the stored counter itself
+        pendingFailures.remove(key);
+        meterRegistry.counter("auth.login.attempts", "outcome", "succeeded").increment();
+    }
+
+    /**
+     * Add accumulated failures to users.failed_login_attempts and drop buckets that refilled
+     */
+    @Scheduled(fixedDelayString = "${application.security.login-throttle.flush-interval:PT30S}")
+    public void flush() {
+        List<Object[]> batch = new ArrayList<>();
+        for (String email : pendingFailures.keySet()) {
+            Integer failures = pendingFailures.remove(email);
+            if (failures != null) {
+                batch.add(new Object[]{failures, email});
+            }
+        }
+        if (!batch.isEmpty()) {
+            try {
+                jdbcTemplate.batchUpdate(ADD_FAILED_ATTEMPTS, batch);
+                log.debug("Persisted failed login attempts of {} emails", batch.size());
+            } catch (Exception e) {
+                // Put the counts back so they are retried on the next flush
+                batch.forEach(row -> pendingFailures.merge((String) row[1], (Integer) row[0], Integer::sum));
+                log.warn("Could not persist failed login attempts, will retry: {}", e.getMessage());
+            }
+        }
+        long now = System.nanoTime();
+        evictRefilled(emailShards, emailLimit, now);
+        evictRefilled(ipShards, ipLimit, now);
+        rotateWindowIfDue(now);
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private void addPendingFailure(String email) {
+        if (pendingFailures.size() >= maxPendingFailures && !pendingFailures.containsKey(email)) {
+            // Same policy as the buckets: drop the count rather than grow without bound
+            meterRegistry.counter("auth.login.throttle.overflow").increment();
+            return;
+        }
+        pendingFailures.merge(email, 1, Integer::sum);
+    }
+
+    private long retryAfterSeconds(Shard[] shards, String key, Limit limit, long now) {
+        if (key == null) {
+            return 0;
+        }
+        Shard shard = shard(shards, key);
+        shard.lock.lock();
+        try {
+            Bucket bucket = shard.buckets.get(key);
+            if (bucket == null) {
+                return 0;
+            }
+            bucket.refill(limit, now);
+            if (bucket.tokens >= 1) {
+                return 0;
+            }
+            return Math.max(1, (long) Math.ceil((1 - bucket.tokens) / limit.refillPerNano() / 1e9));
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    private void consume(Shard[] shards, String key, Limit limit, long now) {
+        Shard shard = shard(shards, key);
+        shard.lock.lock();
+        try {
+            Bucket bucket = shard.buckets.get(key);
+            if (bucket == null) {
+                if (shard.buckets.size() >= maxBucketsPerShard) {
+                    evictRefilled(shard, limit, now);
+                }
+                if (shard.buckets.size() >= maxBucketsPerShard) {
+                    // Fail open rather than grow without bound
+                    meterRegistry.counter("auth.login.throttle.overflow").increment();
+                    return;
+                }
+                bucket = new Bucket(limit.capacity(), now);
+                shard.buckets.put(key, bucket);
+            }
+            bucket.refill(limit, now);
+            bucket.tokens = Math.max(0, bucket.tokens - 1);
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    private void evictRefilled(Shard[] shards, Limit limit, long now) {
+        for (Shard shard : shards) {
+            shard.lock.lock();
+            try {
+                evictRefilled(shard, limit, now);
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+    }
+
+    private static void evictRefilled(Shard shard, Limit limit, long now) {
+        // A full bucket is the same as no bucket
+        shard.buckets.values().removeIf(bucket -> {
+            bucket.refill(limit, now);
+            return bucket.tokens >= limit.capacity();
+        });
+    }
+
+    private void rotateWindowIfDue(long now) {
+        if (now - windowStartedAt < sketchWindow.toNanos()) {
+            return;
+        }
+        synchronized (this) {
+            if (now - windowStartedAt >= sketchWindow.toNanos()) {
+                previousIpFailures = currentIpFailures;
+                currentIpFailures = new CountMinSketch(sketchWidth, sketchDepth);
+                windowStartedAt = now;
+            }
+        }
+    }
+
+    private static Shard shard(Shard[] shards, String key) {
+        return shards[Math.floorMod(key.hashCode(), SHARDS)];
+    }
+
+    private static String normalize(String email) {
+        return email != null ? email.trim().toLowerCase(Locale.ROOT) : null;
+    }
+
+    private static Shard[] newShards() {
+        Shard[] shards = new Shard[SHARDS];
+        for (int i = 0; i < SHARDS; i++) {
+            shards[i] = new Shard();
+        }
+        return shards;
+    }
+}
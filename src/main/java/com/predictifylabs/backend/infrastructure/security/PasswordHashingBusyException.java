@@ -0,0 +1,12 @@
+package com.predictifylabs.backend.infrastructure.security;
+
+/**
+ * Thrown when a password cannot be hashed or checked because the hashing executor is saturated.
+ * Not an authentication failure: the credentials were never checked and the client should retry.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
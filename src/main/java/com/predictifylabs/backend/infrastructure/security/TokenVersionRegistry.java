@@ -0,0 +1,65 @@
+package com.predictifylabs.backend.infrastructure.security;
+
+import com.predictifylabs.backend.infrastructure.adapters.output.persistence.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory copy of users' token versions, so validating an access token needs no query.
+ * Only users whose version was ever bumped are held. Bumps made here apply at once; bumps made
+ * by other instances are picked up by the periodic refresh.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TokenVersionRegistry {
+
+    private final UserRepository userRepository;
+
+    private volatile Map<UUID, Integer> versions = new ConcurrentHashMap<>();
+
+    /**
+     * Whether a token carrying this version is still valid for the user
+     */
+    public boolean isCurrent(UUID userId, int tokenVersion) {
+        return tokenVersion >= currentVersion(userId);
+    }
+
+    public int currentVersion(UUID userId) {
+        return versions.getOrDefault(userId, 0);
+    }
+
+    /**
+     * Invalidate every access token issued to the user so far
+     */
+    public void revokeTokens(UUID userId) {
+        userRepository.incrementTokenVersion(userId);
+        userRepository.findTokenVersion(userId).ifPresent(version -> versions.merge(userId, version, Math::max));
+        log.info("Access tokens of user {} revoked", userId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${application.security.jwt.token-version-refresh:PT30S}",
+            initialDelayString = "${application.security.jwt.token-version-refresh:PT30S}")
+    public void refresh() {
+        try {
+            Map<UUID, Integer> loaded = new ConcurrentHashMap<>();
+            for (var row : userRepository.findTokenVersions()) {
+                loaded.put(row.getUserId(), row.getTokenVersion());
+            }
+            // Keep local bumps the query may not have seen yet
+            versions.forEach((userId, version) -> loaded.merge(userId, version, Math::max));
+            versions = loaded;
+        } catch (Exception e) {
+            log.warn("Could not refresh token versions: {}", e.getMessage());
+        }
+    }
+}
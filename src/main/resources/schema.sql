@@ -54,6 +54,9 @@ CREATE TYPE factor_type AS ENUM ('positive', 'negative', 'neutral');
 -- Impacto del factor
 CREATE TYPE factor_impact AS ENUM ('high', 'medium', 'low');
 
+-- Estado de un trabajo de IA asíncrono
+CREATE TYPE ai_job_status AS ENUM ('pending', 'running', 'completed', 'failed');
+
 -- =============================================================================
 -- TABLAS PRINCIPALES
 -- =============================================================================
@@ -77,6 +80,7 @@ CREATE TABLE users (
     last_login_at TIMESTAMPTZ,
     failed_login_attempts SMALLINT DEFAULT 0,
     locked_until TIMESTAMPTZ,
+    token_version INTEGER NOT NULL DEFAULT 0,
     created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
     updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
     
@@ -91,6 +95,7 @@ COMMENT ON TABLE users IS 'Tabla principal de usuarios del sistema Predictify';
 COMMENT ON COLUMN users.password_hash IS 'Hash bcrypt de la contraseña (nunca almacenar en texto plano)';
 COMMENT ON COLUMN users.failed_login_attempts IS 'Contador de intentos fallidos para prevención de fuerza bruta';
 COMMENT ON COLUMN users.locked_until IS 'Timestamp hasta cuando la cuenta está bloqueada';
+COMMENT ON COLUMN users.token_version IS 'Se incrementa para invalidar los access tokens emitidos antes';
 
 -- -----------------------------------------------------------------------------
 -- TABLA: user_social_links
@@ -643,6 +648,10 @@ CREATE TABLE event_predictions (
     trend prediction_trend DEFAULT 'stable',
     trend_change DECIMAL(5, 2) DEFAULT 0.00,
     
+    -- Insight generado por IA (se copia de la predicción anterior si el cambio no es material)
+    insight TEXT,
+    insight_generated_at TIMESTAMPTZ,
+    
     -- Timestamps
     calculated_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
     created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
@@ -829,6 +838,8 @@ CREATE TABLE refresh_tokens (
     ip_address INET,
     expires_at TIMESTAMPTZ NOT NULL,
     revoked_at TIMESTAMPTZ,
+    -- Motivo de la revocación; solo un token 'rotated' reutilizado indica robo
+    revoke_reason VARCHAR(20),
     created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
     
     -- Foreign Keys
@@ -836,15 +847,20 @@ CREATE TABLE refresh_tokens (
         REFERENCES users(id) ON DELETE CASCADE,
     
     -- Constraints
-    CONSTRAINT refresh_tokens_hash_unique UNIQUE (token_hash)
+    CONSTRAINT refresh_tokens_hash_unique UNIQUE (token_hash),
+    CONSTRAINT refresh_tokens_revoke_reason_check
+        CHECK (revoke_reason IN ('rotated', 'reuse', 'idle'))
 );
 
 -- -----------------------------------------------------------------------------
 -- TABLA: audit_log
 -- Descripción: Registro de auditoría de acciones importantes
+-- old_values/new_values contienen solo los campos modificados en los UPDATE
+-- Particionada por mes sobre created_at; las particiones se crean por adelantado
+-- y la retención se aplica separando y eliminando particiones completas
 -- -----------------------------------------------------------------------------
 CREATE TABLE audit_log (
-    id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    id UUID NOT NULL DEFAULT uuid_generate_v4(),
     user_id UUID,
     action VARCHAR(100) NOT NULL,
     entity_type VARCHAR(50) NOT NULL,
@@ -855,10 +871,13 @@ CREATE TABLE audit_log (
     user_agent TEXT,
     created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
     
+    -- La clave primaria de una tabla particionada debe incluir la clave de partición
+    CONSTRAINT audit_log_pkey PRIMARY KEY (created_at, id),
+    
     -- Foreign Keys
     CONSTRAINT fk_audit_log_user FOREIGN KEY (user_id) 
         REFERENCES users(id) ON DELETE SET NULL
-);
+) PARTITION BY RANGE (created_at);
 
 -- =============================================================================
 -- ÍNDICES OPTIMIZADOS
@@ -866,8 +885,11 @@ CREATE TABLE audit_log (
 
 -- Índices para users
 CREATE INDEX idx_users_email ON users (email);
+-- Para sumar intentos fallidos de login por email normalizado
+CREATE INDEX idx_users_email_lower ON users (lower(email));
 CREATE INDEX idx_users_role ON users (role);
 CREATE INDEX idx_users_is_active ON users (is_active) WHERE is_active = TRUE;
+CREATE INDEX idx_users_token_version ON users (id, token_version) WHERE token_version > 0;
 CREATE INDEX idx_users_created_at ON users (created_at DESC);
 
 -- Índices para events
@@ -913,14 +935,19 @@ CREATE INDEX idx_event_analytics_event ON event_analytics (event_id);
 CREATE INDEX idx_registration_trends_event_date ON registration_trends (event_id, date);
 
 -- Índices para auditoría
-CREATE INDEX idx_audit_log_user ON audit_log (user_id);
-CREATE INDEX idx_audit_log_entity ON audit_log (entity_type, entity_id);
-CREATE INDEX idx_audit_log_created ON audit_log (created_at DESC);
+-- Ordenados como la paginación por cursor (created_at DESC, id DESC); se crean en cada partición.
+-- El orden por created_at solo lo cubre la clave primaria
+CREATE INDEX idx_audit_log_user ON audit_log (user_id, created_at DESC, id DESC);
+CREATE INDEX idx_audit_log_entity ON audit_log (entity_type, entity_id, created_at DESC, id DESC);
 
 -- Índices para refresh tokens
 CREATE INDEX idx_refresh_tokens_user ON refresh_tokens (user_id);
-CREATE INDEX idx_refresh_tokens_expires ON refresh_tokens (expires_at) 
+-- Orden (expires_at, id) para purgar tokens caducados por tramos (keyset)
+CREATE INDEX idx_refresh_tokens_expires ON refresh_tokens (expires_at, id)
     WHERE revoked_at IS NULL;
+-- Tokens revocados, purgados pasado el periodo de retención
+CREATE INDEX idx_refresh_tokens_revoked ON refresh_tokens (revoked_at, id)
+    WHERE revoked_at IS NOT NULL;
 
 -- =============================================================================
 -- FUNCIONES Y TRIGGERS
@@ -1266,9 +1293,60 @@ CREATE TABLE active_sessions (
 
 CREATE INDEX idx_active_sessions_user ON active_sessions (user_id);
 CREATE INDEX idx_active_sessions_expires ON active_sessions (expires_at);
+-- Caducidad por inactividad
+CREATE INDEX idx_active_sessions_activity ON active_sessions (last_activity_at);
+CREATE INDEX idx_active_sessions_token ON active_sessions (refresh_token_id);
 
 COMMENT ON TABLE active_sessions IS 'Gestión de sesiones activas para control de dispositivos';
 
+-- -----------------------------------------------------------------------------
+-- TABLA: ai_usage
+-- Descripción: Consumo diario de IA por usuario (peticiones y tokens estimados)
+-- -----------------------------------------------------------------------------
+CREATE TABLE ai_usage (
+    user_id UUID NOT NULL,
+    usage_date DATE NOT NULL,
+    requests BIGINT NOT NULL DEFAULT 0,
+    tokens BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    
+    PRIMARY KEY (user_id, usage_date),
+    
+    -- Foreign Keys
+    CONSTRAINT fk_ai_usage_user FOREIGN KEY (user_id) 
+        REFERENCES users(id) ON DELETE CASCADE
+);
+
+COMMENT ON TABLE ai_usage IS 'Contadores de cuota de IA volcados periódicamente desde memoria';
+
+-- -----------------------------------------------------------------------------
+-- TABLA: ai_jobs
+-- Descripción: Generaciones de IA asíncronas y sus resultados
+-- -----------------------------------------------------------------------------
+CREATE TABLE ai_jobs (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    user_id UUID NOT NULL,
+    use_case VARCHAR(30) NOT NULL, -- 'EVENT_DESCRIPTION', 'FREE_TEXT'
+    cache_key VARCHAR(64) NOT NULL, -- SHA-256 del prompt; trabajos con la misma clave comparten generación
+    status ai_job_status NOT NULL DEFAULT 'pending',
+    result TEXT,
+    error TEXT,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    started_at TIMESTAMPTZ,
+    completed_at TIMESTAMPTZ,
+    expires_at TIMESTAMPTZ, -- se borra al vencer; solo se fija al terminar
+    
+    -- Foreign Keys
+    CONSTRAINT fk_ai_jobs_user FOREIGN KEY (user_id) 
+        REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_ai_jobs_user ON ai_jobs (user_id, created_at DESC);
+CREATE INDEX idx_ai_jobs_expires ON ai_jobs (expires_at) WHERE expires_at IS NOT NULL;
+CREATE INDEX idx_ai_jobs_unfinished ON ai_jobs (created_at) WHERE status IN ('pending', 'running');
+
+COMMENT ON TABLE ai_jobs IS 'Trabajos de IA asíncronos consultables por sondeo o SSE';
+
 -- =============================================================================
 -- SISTEMA DE PERMISOS Y RUTAS
 -- =============================================================================
@@ -1808,6 +1886,8 @@ GRANT SELECT ON prediction_factors_catalog TO predictify_authenticated;
 -- Sesiones y tokens
 GRANT SELECT, INSERT, UPDATE, DELETE ON refresh_tokens TO predictify_authenticated;
 GRANT SELECT, INSERT, UPDATE, DELETE ON active_sessions TO predictify_authenticated;
+GRANT SELECT ON ai_usage TO predictify_authenticated;
+GRANT SELECT ON ai_jobs TO predictify_authenticated;
 
 -- Permisos y rutas
 GRANT SELECT ON permissions TO predictify_authenticated;
@@ -1992,57 +2072,34 @@ END;
 $$ LANGUAGE plpgsql SECURITY DEFINER;
 
 -- =============================================================================
--- TRIGGER DE AUDITORÍA AUTOMÁTICA
+-- AUDITORÍA
 -- =============================================================================
 
--- Función genérica de auditoría
-CREATE OR REPLACE FUNCTION audit_trigger_function()
-RETURNS TRIGGER AS $$
+-- La auditoría de users, events y organizers la hace la aplicación (AuditService):
+-- registra solo los campos modificados, con el usuario, IP y user agent de la petición,
+-- y escribe en lotes después del commit. No se usan triggers de auditoría.
+
+-- Crea la partición mensual de audit_log que contiene p_month (límites en UTC).
+-- Devuelve el nombre de la partición; no hace nada si ya existe
+CREATE OR REPLACE FUNCTION create_audit_log_partition(p_month DATE)
+RETURNS TEXT AS $$
+DECLARE
+    v_start DATE := date_trunc('month', p_month)::date;
+    v_name TEXT := 'audit_log_' || to_char(v_start, '"y"YYYY"m"MM');
 BEGIN
-    IF TG_OP = 'INSERT' THEN
-        PERFORM log_audit_action(
-            TG_OP || '_' || TG_TABLE_NAME,
-            TG_TABLE_NAME,
-            NEW.id,
-            NULL,
-            to_jsonb(NEW)
-        );
-        RETURN NEW;
-    ELSIF TG_OP = 'UPDATE' THEN
-        PERFORM log_audit_action(
-            TG_OP || '_' || TG_TABLE_NAME,
-            TG_TABLE_NAME,
-            NEW.id,
-            to_jsonb(OLD),
-            to_jsonb(NEW)
-        );
-        RETURN NEW;
-    ELSIF TG_OP = 'DELETE' THEN
-        PERFORM log_audit_action(
-            TG_OP || '_' || TG_TABLE_NAME,
-            TG_TABLE_NAME,
-            OLD.id,
-            to_jsonb(OLD),
-            NULL
-        );
-        RETURN OLD;
-    END IF;
-    RETURN NULL;
+    EXECUTE format(
+        'CREATE TABLE IF NOT EXISTS %I PARTITION OF audit_log FOR VALUES FROM (%L) TO (%L)',
+        v_name,
+        v_start::timestamp AT TIME ZONE 'UTC',
+        (v_start + INTERVAL '1 month')::timestamp AT TIME ZONE 'UTC'
+    );
+    RETURN v_name;
 END;
-$$ LANGUAGE plpgsql SECURITY DEFINER;
-
--- Aplicar trigger de auditoría a tablas críticas
-CREATE TRIGGER audit_users_trigger
-    AFTER INSERT OR UPDATE OR DELETE ON users
-    FOR EACH ROW EXECUTE FUNCTION audit_trigger_function();
-
-CREATE TRIGGER audit_events_trigger
-    AFTER INSERT OR UPDATE OR DELETE ON events
-    FOR EACH ROW EXECUTE FUNCTION audit_trigger_function();
+$$ LANGUAGE plpgsql;
 
-CREATE TRIGGER audit_organizers_trigger
-    AFTER INSERT OR UPDATE OR DELETE ON organizers
-    FOR EACH ROW EXECUTE FUNCTION audit_trigger_function();
+-- Particiones del mes actual y los tres siguientes; el resto las crea AuditPartitionService
+SELECT create_audit_log_partition((date_trunc('month', NOW() AT TIME ZONE 'UTC') + make_interval(months => m))::date)
+FROM generate_series(0, 3) AS m;
 
 -- =============================================================================
 -- VISTA DE RESUMEN DE PERMISOS POR ROL
@@ -0,0 +1,151 @@
+package com.predictifylabs.backend;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.predictifylabs.backend.support.FakeGeminiServer;
+import com.predictifylabs.backend.support.LoadDriver;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Load test of the AI endpoints against {@link FakeGeminiServer}, so no Gemini quota is spent.
+ * Needs the application database; run with
+ * {@code mvn test -Dtest=AiLoadTest -Dai.load=true [-Dai.load.concurrency=8,32,128] [-Dai.load.seconds=20]}.
+ * Fake server behaviour is tuned with ai.load.latency-ms, ai.load.error-rate and ai.load.tokens-per-second;
+ * application properties such as application.ai.resilience.max-concurrent can be overridden the same way.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@EnabledIfSystemProperty(named = "ai.load", matches = "true")
+class AiLoadTest {
+
+    private static FakeGeminiServer gemini;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private final AtomicLong promptSequence = new AtomicLong();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String token;
+
+    @DynamicPropertySource
+    static void fakeGemini(DynamicPropertyRegistry registry) throws IOException {
+        gemini = FakeGeminiServer.builder()
+                .latency(Duration.ofMillis(Long.getLong("ai.load.latency-ms", 300)), 0.5)
+                .errorRate(Double.parseDouble(System.getProperty("ai.load.error-rate", "0")))
+                .streaming(8, Double.parseDouble(System.getProperty("ai.load.tokens-per-second", "200")))
+                .start();
+        registry.add("application.ai.gemini.base-url", gemini::baseUrl);
+        registry.add("application.ai.gemini.api-key", () -> "fake-key");
+        // Measure the generation path itself, not the layers that would absorb or refuse repeated calls
+        registry.add("application.ai.cache.enabled", () -> false);
+        registry.add("application.ai.quota.enabled", () -> false);
+        registry.add("application.ai.resilience.requests-per-minute", () -> 1_000_000);
+        registry.add("application.ai.resilience.burst", () -> 10_000);
+        registry.add("application.predictions.insights.enabled", () -> false);
+        registry.add("logging.level.com.predictifylabs.backend", () -> "INFO");
+        registry.add("logging.level.org.springframework.security", () -> "INFO");
+        registry.add("spring.jpa.show-sql", () -> false);
+    }
+
+    @AfterAll
+    static void stopFakeGemini() {
+        if (gemini != null) {
+            gemini.close();
+        }
+    }
+
+    @BeforeEach
+    void registerUser() throws Exception {
+        String email = "load-" + UUID.randomUUID() + "@example.com";
+        String body = objectMapper.writeValueAsString(
+                Map.of("name", "Load Test", "email", email, "password", "load-test-password"));
+        var response = client.send(post("/api/v1/auth/register", body).build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), response.body());
+        token = objectMapper.readTree(response.body()).get("access_token").asText();
+    }
+
+    @Test
+    void aiEndpointsUnderConcurrency() throws Exception {
+        var seconds = Duration.ofSeconds(Long.getLong("ai.load.seconds", 20));
+        List<LoadDriver.Report> reports = new ArrayList<>();
+
+        for (int concurrency : concurrencyLevels()) {
+            var driver = new LoadDriver(concurrency, Duration.ofSeconds(3), seconds, "http-nio-");
+            reports.add(driver.run("generate", this::generate));
+            reports.add(driver.run("generate/stream", this::stream));
+        }
+
+        System.out.println("\nAI load test against fake Gemini (" + gemini.requestCount() + " upstream calls, "
+                + gemini.errorCount() + " injected errors)\n" + LoadDriver.Report.table(reports));
+        reports.forEach(report -> assertEquals(0, report.failed(), report.toString()));
+    }
+
+    private int generate() throws Exception {
+        var request = post("/api/v1/ai/generate", promptJson()).build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private int stream() throws Exception {
+        var request = post("/api/v1/ai/generate/stream", promptJson())
+                .header("Accept", "text/event-stream")
+                .build();
+        var response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream body = response.body()) {
+            String events = new String(body.readAllBytes());
+            // Errors inside an open stream arrive as an "error" event on a 200 response
+            return response.statusCode() == 200 && !events.contains("event:done") ? 500 : response.statusCode();
+        }
+    }
+
+    private String promptJson() throws Exception {
+        return objectMapper.writeValueAsString(Map.of("prompt",
+                "Summarise load test request " + promptSequence.incrementAndGet()));
+    }
+
+    private HttpRequest.Builder post(String path, String json) {
+        var builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofMinutes(2))
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private static int[] concurrencyLevels() {
+        return Arrays.stream(System.getProperty("ai.load.concurrency", "8,32,128").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+    }
+}
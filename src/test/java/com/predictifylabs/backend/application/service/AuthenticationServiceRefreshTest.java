@@ -0,0 +1,225 @@
+package com.predictifylabs.backend.application.service;
+
+import com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.auth.AuthenticationResponse;
+import com.predictifylabs.backend.infrastructure.adapters.input.rest.dto.auth.RefreshTokenRequest;
+import com.predictifylabs.backend.infrastructure.adapters.output.persistence.entity.RefreshTokenEntity;
+import com.predictifylabs.backend.infrastructure.adapters.output.persistence.entity.UserEntity;
+import com.predictifylabs.backend.infrastructure.adapters.output.persistence.repository.RefreshTokenRepository;
+import com.predictifylabs.backend.infrastructure.adapters.output.persistence.repository.UserRepository;
+import com.predictifylabs.backend.infrastructure.security.ClientInfo;
+import com.predictifylabs.backend.infrastructure.security.InvalidRefreshTokenException;
+import com.predictifylabs.backend.infrastructure.security.JwtService;
+import com.predictifylabs.backend.infrastructure.security.LoginThrottler;
+import com.predictifylabs.backend.infrastructure.security.TokenVersionRegistry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.MalformedJwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Refresh token rotation and reuse detection of {@link AuthenticationService#refresh}.
+ * The repository keeps the revoke reason of a single stored token, so revokeIfActive behaves
+ * like its conditional UPDATE: only the first caller revokes.
+ */
+class AuthenticationServiceRefreshTest {
+
+    private static final String TOKEN = "refresh-token";
+
+    private final RefreshTokenRepository refreshTokenRepository = mock(RefreshTokenRepository.class);
+    private final JwtService jwtService = mock(JwtService.class);
+    private final TokenVersionRegistry tokenVersions = mock(TokenVersionRegistry.class);
+    private final SessionService sessionService = mock(SessionService.class);
+
+    private final AtomicReference<String> revokeReason = new AtomicReference<>();
+    private final UUID sessionId = UUID.randomUUID();
+    private UserEntity user;
+    private RefreshTokenEntity stored;
+    private AuthenticationService service;
+
+    @BeforeEach
+    void setUp() {
+        user = UserEntity.builder()
+                .id(UUID.randomUUID())
+                .email("user@example.com")
+                .password("hash")
+                .build();
+        stored = RefreshTokenEntity.builder()
+                .id(UUID.randomUUID())
+                .user(user)
+                .tokenHash(JwtService.hashToken(TOKEN))
+                .expiresAt(OffsetDateTime.now().plusDays(7))
+                .build();
+
+        var claims = mock(Claims.class);
+        when(jwtService.extractAllClaims(TOKEN)).thenReturn(claims);
+        when(jwtService.isRefreshToken(claims)).thenReturn(true);
+        when(jwtService.generateRefreshToken(any(UserDetails.class))).thenReturn("new-refresh-token");
+        when(jwtService.generateToken(any(UserEntity.class), anyInt(), any(UUID.class))).thenReturn("access-token");
+        when(jwtService.refreshTokenTtl()).thenReturn(Duration.ofDays(7));
+
+        when(refreshTokenRepository.findByTokenHash(JwtService.hashToken(TOKEN))).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.revokeIfActive(eq(stored.getId()), any()))
+                .thenAnswer(call -> revokeReason.compareAndSet(null, RefreshTokenEntity.REVOKED_ROTATED) ? 1 : 0);
+        when(refreshTokenRepository.findRevokeReason(stored.getId()))
+                .thenAnswer(call -> Optional.ofNullable(revokeReason.get()));
+        when(refreshTokenRepository.save(any(RefreshTokenEntity.class))).thenAnswer(call -> {
+            RefreshTokenEntity token = call.getArgument(0);
+            token.setId(UUID.randomUUID());
+            return token;
+        });
+        when(sessionService.rotate(eq(stored.getId()), any())).thenReturn(Optional.of(sessionId));
+
+        service = new AuthenticationService(mock(UserRepository.class), refreshTokenRepository,
+                mock(PasswordEncoder.class), jwtService, mock(AuthenticationManager.class), tokenVersions,
+                sessionService, mock(LoginThrottler.class), mock(AuditService.class), mock(TransactionTemplate.class));
+    }
+
+    private AuthenticationResponse refresh() {
+        return service.refresh(new RefreshTokenRequest(TOKEN), ClientInfo.UNKNOWN);
+    }
+
+    @Test
+    void rotatesTheTokenAndKeepsTheSession() {
+        var response = refresh();
+
+        assertEquals("access-token", response.getAccessToken());
+        assertEquals("new-refresh-token", response.getRefreshToken());
+        assertEquals(RefreshTokenEntity.REVOKED_ROTATED, revokeReason.get());
+        verify(jwtService).generateToken(user, user.getTokenVersion(), sessionId);
+        verify(sessionService, never()).open(any(), any(), any());
+    }
+
+    @Test
+    void concurrentRefreshesOfOneTokenIssueTokensOnce() throws Exception {
+        var ready = new CountDownLatch(2);
+        var start = new CountDownLatch(1);
+        Callable<AuthenticationResponse> attempt = () -> {
+            ready.countDown();
+            start.await();
+            return refresh();
+        };
+
+        var executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<AuthenticationResponse>> results = new ArrayList<>();
+            results.add(executor.submit(attempt));
+            results.add(executor.submit(attempt));
+            ready.await();
+            start.countDown();
+
+            int succeeded = 0;
+            int refused = 0;
+            for (var result : results) {
+                try {
+                    assertNotNull(result.get());
+                    succeeded++;
+                } catch (ExecutionException e) {
+                    assertInstanceOf(InvalidRefreshTokenException.class, e.getCause());
+                    refused++;
+                }
+            }
+            assertEquals(1, succeeded);
+            assertEquals(1, refused);
+            verify(jwtService, times(1)).generateRefreshToken(any(UserDetails.class));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void reusingARotatedTokenRevokesEverySession() {
+        refresh();
+
+        var error = assertThrows(InvalidRefreshTokenException.class, this::refresh);
+
+        assertEquals("Refresh token already used", error.getMessage());
+        verify(refreshTokenRepository).revokeAllByUser(eq(user.getId()), any(), eq(RefreshTokenEntity.REVOKED_REUSE));
+        verify(sessionService).endAll(user.getId());
+        verify(tokenVersions).revokeTokens(user.getId());
+    }
+
+    @Test
+    void idleRevokedTokenIsRefusedWithoutRevokingOtherSessions() {
+        revokeReason.set(RefreshTokenEntity.REVOKED_IDLE);
+
+        var error = assertThrows(InvalidRefreshTokenException.class, this::refresh);
+
+        assertEquals("Refresh token revoked", error.getMessage());
+        verify(refreshTokenRepository, never()).revokeAllByUser(any(), any(), anyString());
+        verify(sessionService, never()).endAll(any());
+        verify(tokenVersions, never()).revokeTokens(any());
+    }
+
+    @Test
+    void expiredTokenIsRefused() {
+        stored.setExpiresAt(OffsetDateTime.now().minusMinutes(1));
+
+        var error = assertThrows(InvalidRefreshTokenException.class, this::refresh);
+
+        assertEquals("Refresh token expired", error.getMessage());
+        verify(jwtService, never()).generateRefreshToken(any(UserDetails.class));
+    }
+
+    @Test
+    void reusingAnExpiredRotatedTokenDoesNotRevokeOtherSessions() {
+        stored.setExpiresAt(OffsetDateTime.now().minusMinutes(1));
+        revokeReason.set(RefreshTokenEntity.REVOKED_ROTATED);
+
+        var error = assertThrows(InvalidRefreshTokenException.class, this::refresh);
+
+        assertEquals("Refresh token revoked", error.getMessage());
+        verify(refreshTokenRepository, never()).revokeAllByUser(any(), any(), anyString());
+    }
+
+    @Test
+    void inactiveUserIsRefused() {
+        user.setIsActive(false);
+
+        var error = assertThrows(InvalidRefreshTokenException.class, this::refresh);
+
+        assertEquals("User is not active", error.getMessage());
+        verify(jwtService, never()).generateRefreshToken(any(UserDetails.class));
+    }
+
+    @Test
+    void malformedTokenIsRefused() {
+        when(jwtService.extractAllClaims("garbage")).thenThrow(new MalformedJwtException("bad"));
+
+        var error = assertThrows(InvalidRefreshTokenException.class,
+                () -> service.refresh(new RefreshTokenRequest("garbage"), ClientInfo.UNKNOWN));
+
+        assertEquals("Invalid refresh token", error.getMessage());
+        verify(refreshTokenRepository, never()).revokeIfActive(any(), any());
+    }
+}
@@ -0,0 +1,132 @@
+package com.predictifylabs.backend.application.service;
+
+import com.predictifylabs.backend.domain.model.Role;
+import com.predictifylabs.backend.infrastructure.adapters.output.persistence.entity.ProtectedRouteEntity;
+import com.predictifylabs.backend.infrastructure.adapters.output.persistence.repository.RolePermissionRepository.Grant;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Access rules of {@link RouteTable}, which must match the can_access_route database function
+ */
+class RouteTableTest {
+
+    private record TestGrant(String getRole, String getPermissionId) implements Grant {
+    }
+
+    private static ProtectedRouteEntity route(String path, String[] roles, String[] permissions, boolean requireAll) {
+        return ProtectedRouteEntity.builder()
+                .path(path)
+                .name(path)
+                .allowedRoles(roles)
+                .requiredPermissions(permissions)
+                .requireAllPermissions(requireAll)
+                .build();
+    }
+
+    private static String[] of(String... values) {
+        return values;
+    }
+
+    @Test
+    void requireAllPermissionsNeedsEveryPermission() {
+        var table = RouteTable.compile(
+                List.of(route("/reports", of("organizer", "admin"), of("reports.read", "reports.export"), true)),
+                List.of(new TestGrant("organizer", "reports.read"),
+                        new TestGrant("admin", "reports.read"),
+                        new TestGrant("admin", "reports.export")));
+
+        assertFalse(table.check("/reports", Role.ORGANIZER).allowed());
+        assertTrue(table.check("/reports", Role.ADMIN).allowed());
+    }
+
+    @Test
+    void anyPermissionIsEnoughWhenNotRequiringAll() {
+        var table = RouteTable.compile(
+                List.of(route("/reports", of("attendee", "organizer"), of("reports.read", "reports.export"), false)),
+                List.of(new TestGrant("organizer", "reports.export")));
+
+        assertTrue(table.check("/reports", Role.ORGANIZER).allowed());
+        assertFalse(table.check("/reports", Role.ATTENDEE).allowed());
+    }
+
+    @Test
+    void emptyRequiredPermissionsOnlyCheckTheRole() {
+        var table = RouteTable.compile(
+                List.of(route("/dashboard", of("organizer"), of(), false),
+                        route("/settings", of("organizer"), null, true)),
+                List.of());
+
+        assertTrue(table.check("/dashboard", Role.ORGANIZER).allowed());
+        assertTrue(table.check("/settings", Role.ORGANIZER).allowed());
+        assertFalse(table.check("/dashboard", Role.ATTENDEE).allowed());
+        assertFalse(table.check("/dashboard", null).allowed());
+    }
+
+    @Test
+    void publicRoutesAreOpenToEveryone() {
+        var open = route("/events", of(), of("events.manage"), true);
+        open.setIsPublic(true);
+        var table = RouteTable.compile(List.of(open, route("/admin", of("admin"), of(), false)), List.of());
+
+        assertTrue(table.check("/events", null).allowed());
+        assertTrue(table.check("/events", Role.ATTENDEE).allowed());
+        assertEquals(List.of("/events"), table.accessibleRoutes(null).stream().map(RouteTable.Route::path).toList());
+        assertEquals(2, table.accessibleRoutes(Role.ADMIN).size());
+    }
+
+    @Test
+    void unknownRolesAndPermissionsAreIgnored() {
+        var table = RouteTable.compile(
+                List.of(route("/beta", of("tester", "organizer"), of("beta.access"), false)),
+                List.of(new TestGrant("tester", "beta.access"),
+                        new TestGrant("organizer", "unused.permission")));
+
+        // Nobody holds beta.access, and "tester" is not a role of the application
+        for (Role role : Role.values()) {
+            assertFalse(table.check("/beta", role).allowed());
+        }
+        assertEquals("/beta", table.check("/beta", Role.ORGANIZER).route().path());
+    }
+
+    @Test
+    void literalSegmentsTakePrecedenceOverParams() {
+        var table = RouteTable.compile(
+                List.of(route("/dashboard/events/:id", of("organizer"), of(), false),
+                        route("/dashboard/events/new", of("admin"), of(), false)),
+                List.of());
+
+        var literal = table.check("/dashboard/events/new", Role.ORGANIZER);
+        assertEquals("/dashboard/events/new", literal.route().path());
+        assertFalse(literal.allowed());
+
+        var param = table.check("/dashboard/events/42?tab=stats", Role.ORGANIZER);
+        assertEquals("/dashboard/events/:id", param.route().path());
+        assertTrue(param.allowed());
+    }
+
+    @Test
+    void literalDeadEndFallsBackToParam() {
+        var table = RouteTable.compile(
+                List.of(route("/events/new/preview", of("organizer"), of(), false),
+                        route("/events/:id/edit", of("organizer"), of(), false)),
+                List.of());
+
+        assertEquals("/events/:id/edit", table.check("/events/new/edit", Role.ORGANIZER).route().path());
+    }
+
+    @Test
+    void unmatchedPathHasNoRoute() {
+        var table = RouteTable.compile(List.of(route("/dashboard", of("admin"), of(), false)), List.of());
+
+        var decision = table.check("/unknown", Role.ADMIN);
+        assertNull(decision.route());
+        assertFalse(decision.allowed());
+    }
+}
@@ -0,0 +1,128 @@
+package com.predictifylabs.backend.infrastructure.security;
+
+import com.predictifylabs.backend.domain.model.Role;
+import com.predictifylabs.backend.infrastructure.adapters.output.persistence.entity.UserEntity;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of bearer token authentication in JwtAuthenticationFilter.
+ * <ul>
+ *   <li>{@code legacyVerification}: the previous pipeline, which rebuilt the key and parser and
+ *   verified the token three times per request (the user lookup it also made is not included)</li>
+ *   <li>{@code filterCacheMiss}: the filter when every token is new, i.e. one verification per request</li>
+ *   <li>{@code filterCacheHit}: the filter for a token verified before</li>
+ * </ul>
+ * Run with:
+ * {@code mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test}
+ * then {@code java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.predictifylabs.backend.infrastructure.security.JwtFilterBenchmark}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+    private static final int DISTINCT_TOKENS = 4096;
+    private static final int CACHE_SIZE = 64;
+
+    private JwtAuthenticationFilter filter;
+    private String token;
+    private String[] distinctTokens;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        var jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 3_600_000L);
+        ReflectionTestUtils.setField(jwtService, "claimsCacheSize", CACHE_SIZE);
+        jwtService.init();
+        filter = new JwtAuthenticationFilter(jwtService, new TokenVersionRegistry(null), null, null);
+
+        var user = UserEntity.builder()
+                .id(UUID.randomUUID())
+                .email("bench@example.com")
+                .role(Role.ATTENDEE)
+                .build();
+        token = jwtService.generateToken(user, 0);
+        // Far more tokens than the cache holds, so each one misses
+        distinctTokens = new String[DISTINCT_TOKENS];
+        for (int i = 0; i < DISTINCT_TOKENS; i++) {
+            user.setId(UUID.randomUUID());
+            distinctTokens[i] = jwtService.generateToken(user, 0);
+        }
+    }
+
+    @Benchmark
+    public void legacyVerification(Blackhole blackhole) {
+        // extractUsername, then isTokenValid: extractUsername and extractExpiration, each with a fresh key and parser
+        String username = legacyClaims(token).getSubject();
+        boolean valid = username.equals(legacyClaims(token).getSubject())
+                && !legacyClaims(token).getExpiration().before(new Date());
+        blackhole.consume(valid);
+    }
+
+    @Benchmark
+    public Object filterCacheMiss() throws Exception {
+        String distinct = distinctTokens[next];
+        next = (next + 1) % DISTINCT_TOKENS;
+        return authenticate(distinct);
+    }
+
+    @Benchmark
+    public Object filterCacheHit() throws Exception {
+        return authenticate(token);
+    }
+
+    private Object authenticate(String bearer) throws Exception {
+        var request = new MockHttpServletRequest("GET", "/api/v1/users/me");
+        request.addHeader("Authorization", "Bearer " + bearer);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    private static Claims legacyClaims(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(JwtFilterBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
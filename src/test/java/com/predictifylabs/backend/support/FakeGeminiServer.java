@@ -0,0 +1,223 @@
+package com.predictifylabs.backend.support;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Embeddable stand-in for the generativelanguage API, for exercising the AI paths without quota.
+ * Answers {@code /models/{model}:generateContent} with a single JSON response and
+ * {@code /models/{model}:streamGenerateContent?alt=sse} with SSE chunks, in the shapes GeminiAdapter reads.
+ * Latency is log-normal around a median, a fraction of calls fails with 503, and streamed
+ * chunks are paced to a configured token rate.
+ */
+public final class FakeGeminiServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Duration medianLatency;
+    private final double latencySigma;
+    private final double errorRate;
+    private final int responseWords;
+    private final int wordsPerChunk;
+    private final double tokensPerSecond;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+
+    private FakeGeminiServer(Builder builder) throws IOException {
+        this.medianLatency = builder.medianLatency;
+        this.latencySigma = builder.latencySigma;
+        this.errorRate = builder.errorRate;
+        this.responseWords = builder.responseWords;
+        this.wordsPerChunk = builder.wordsPerChunk;
+        this.tokensPerSecond = builder.tokensPerSecond;
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", builder.port), 0);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Base URL to configure as application.ai.gemini.base-url
+     */
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/v1beta";
+    }
+
+    public long requestCount() {
+        return requests.get();
+    }
+
+    public long errorCount() {
+        return errors.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.incrementAndGet();
+            exchange.getRequestBody().readAllBytes();
+            String path = exchange.getRequestURI().getPath();
+
+            if (!"POST".equals(exchange.getRequestMethod()) || !path.startsWith("/v1beta/models/")) {
+                send(exchange, 404, errorBody(404, "NOT_FOUND", "Unknown path " + path));
+                return;
+            }
+            sleep(sampleLatency());
+
+            if (ThreadLocalRandom.current().nextDouble() < errorRate) {
+                errors.incrementAndGet();
+                send(exchange, 503, errorBody(503, "UNAVAILABLE", "The model is overloaded. Please try again later."));
+                return;
+            }
+            if (path.endsWith(":streamGenerateContent")) {
+                stream(exchange);
+            } else if (path.endsWith(":generateContent")) {
+                send(exchange, 200, responseJson(words(0, responseWords), true));
+            } else {
+                send(exchange, 404, errorBody(404, "NOT_FOUND", "Unknown method " + path));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void stream(HttpExchange exchange) throws IOException, InterruptedException {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream body = exchange.getResponseBody();
+        long chunkDelayNanos = (long) (wordsPerChunk / tokensPerSecond * 1_000_000_000L);
+
+        for (int from = 0; from < responseWords; from += wordsPerChunk) {
+            int to = Math.min(responseWords, from + wordsPerChunk);
+            String text = words(from, to) + (to < responseWords ? " " : "");
+            body.write(("data: " + responseJson(text, to == responseWords) + "\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+            body.flush();
+            if (to < responseWords) {
+                sleep(Duration.ofNanos(chunkDelayNanos));
+            }
+        }
+    }
+
+    private Duration sampleLatency() {
+        if (medianLatency.isZero()) {
+            return Duration.ZERO;
+        }
+        double factor = Math.exp(latencySigma * ThreadLocalRandom.current().nextGaussian());
+        return Duration.ofNanos((long) (medianLatency.toNanos() * factor));
+    }
+
+    private static String words(int from, int to) {
+        StringBuilder text = new StringBuilder();
+        for (int i = from; i < to; i++) {
+            if (i > from) {
+                text.append(' ');
+            }
+            text.append("token").append(i);
+        }
+        return text.toString();
+    }
+
+    private String responseJson(String text, boolean last) {
+        String usage = last
+                ? ",\"usageMetadata\":{\"promptTokenCount\":32,\"candidatesTokenCount\":%d,\"totalTokenCount\":%d}"
+                        .formatted(responseWords, responseWords + 32)
+                : "";
+        return "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"" + text + "\"}],\"role\":\"model\"}"
+                + (last ? ",\"finishReason\":\"STOP\"" : "") + "}]" + usage + "}";
+    }
+
+    private static String errorBody(int code, String status, String message) {
+        return "{\"error\":{\"code\":%d,\"message\":\"%s\",\"status\":\"%s\"}}".formatted(code, message, status);
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private static void sleep(Duration duration) throws InterruptedException {
+        if (!duration.isZero()) {
+            Thread.sleep(duration);
+        }
+    }
+
+    public static final class Builder {
+
+        private int port;
+        private Duration medianLatency = Duration.ofMillis(300);
+        private double latencySigma = 0.5;
+        private double errorRate;
+        private int responseWords = 120;
+        private int wordsPerChunk = 8;
+        private double tokensPerSecond = 200;
+
+        private Builder() {
+        }
+
+        /**
+         * Listen port; 0 picks a free one
+         */
+        public Builder port(int port) {
+            this.port = port;
+            return this;
+        }
+
+        /**
+         * Log-normal time to first byte: the median and the sigma of its logarithm
+         */
+        public Builder latency(Duration median, double sigma) {
+            this.medianLatency = median;
+            this.latencySigma = sigma;
+            return this;
+        }
+
+        /**
+         * Fraction of calls, between 0 and 1, answered with 503
+         */
+        public Builder errorRate(double errorRate) {
+            this.errorRate = errorRate;
+            return this;
+        }
+
+        public Builder responseWords(int responseWords) {
+            this.responseWords = responseWords;
+            return this;
+        }
+
+        /**
+         * Streaming speed: words per SSE chunk and the token rate the chunks are paced to
+         */
+        public Builder streaming(int wordsPerChunk, double tokensPerSecond) {
+            this.wordsPerChunk = wordsPerChunk;
+            this.tokensPerSecond = tokensPerSecond;
+            return this;
+        }
+
+        public FakeGeminiServer start() throws IOException {
+            return new FakeGeminiServer(this);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.predictifylabs.backend.support;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load generator: a fixed number of workers each send the next request as soon as
+ * the previous one finishes, for a fixed duration after a warm-up.
+ * Reports throughput, latency percentiles and how many platform threads the server side used;
+ * the driver's own workers are virtual threads so they do not show up in that count.
+ */
+public final class LoadDriver {
+
+    private static final Duration THREAD_SAMPLE_INTERVAL = Duration.ofMillis(50);
+
+    private final int concurrency;
+    private final Duration warmUp;
+    private final Duration duration;
+    private final String serverThreadPrefix;
+
+    /**
+     * @param serverThreadPrefix name prefix of the server's request threads, e.g. "http-nio-"
+     */
+    public LoadDriver(int concurrency, Duration warmUp, Duration duration, String serverThreadPrefix) {
+        this.concurrency = concurrency;
+        this.warmUp = warmUp;
+        this.duration = duration;
+        this.serverThreadPrefix = serverThreadPrefix;
+    }
+
+    /**
+     * Run the scenario; the call returns the HTTP status of one request
+     */
+    public Report run(String name, Callable<Integer> call) throws InterruptedException {
+        long warmUpEnd = System.nanoTime() + warmUp.toNanos();
+        long end = warmUpEnd + duration.toNanos();
+
+        var latencies = new ArrayList<long[]>(concurrency);
+        var ok = new AtomicLong();
+        var rejected = new AtomicLong();
+        var failed = new AtomicLong();
+        var done = new CountDownLatch(concurrency);
+
+        for (int i = 0; i < concurrency; i++) {
+            long[] samples = new long[1 << 16];
+            var count = new AtomicInteger();
+            latencies.add(samples);
+            Thread.ofVirtual().name("load-" + name + "-" + i).start(() -> {
+                try {
+                    while (System.nanoTime() < end) {
+                        long start = System.nanoTime();
+                        int status;
+                        try {
+                            status = call.call();
+                        } catch (Exception e) {
+                            status = -1;
+                        }
+                        long elapsed = System.nanoTime() - start;
+                        if (start < warmUpEnd) {
+                            continue;
+                        }
+                        if (status >= 200 && status < 300) {
+                            ok.incrementAndGet();
+                            int index = count.getAndIncrement();
+                            if (index < samples.length) {
+                                samples[index] = elapsed;
+                            }
+                        } else if (status == 429 || status == 503) {
+                            rejected.incrementAndGet();
+                        } else {
+                            failed.incrementAndGet();
+                        }
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        int peakServerThreads = 0;
+        int peakLiveThreads = 0;
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        while (!done.await(THREAD_SAMPLE_INTERVAL.toMillis(), TimeUnit.MILLISECONDS)) {
+            if (System.nanoTime() < warmUpEnd) {
+                continue;
+            }
+            peakLiveThreads = Math.max(peakLiveThreads, threads.getThreadCount());
+            peakServerThreads = Math.max(peakServerThreads, busyServerThreads(threads));
+        }
+
+        long[] all = latencies.stream().flatMapToLong(samples -> Arrays.stream(samples).filter(l -> l > 0)).sorted().toArray();
+        double seconds = duration.toNanos() / 1e9;
+        return new Report(name, concurrency, ok.get(), rejected.get(), failed.get(), ok.get() / seconds,
+                percentile(all, 0.50), percentile(all, 0.90), percentile(all, 0.99),
+                all.length > 0 ? Duration.ofNanos(all[all.length - 1]) : Duration.ZERO,
+                peakServerThreads, peakLiveThreads);
+    }
+
+    private int busyServerThreads(ThreadMXBean threads) {
+        int busy = 0;
+        for (ThreadInfo info : threads.getThreadInfo(threads.getAllThreadIds(), 32)) {
+            if (info != null && info.getThreadName().startsWith(serverThreadPrefix) && !isIdle(info)) {
+                busy++;
+            }
+        }
+        return busy;
+    }
+
+    /**
+     * Idle pool threads sit in the executor's getTask waiting for work; anything else is serving a request
+     */
+    private static boolean isIdle(ThreadInfo info) {
+        for (StackTraceElement frame : info.getStackTrace()) {
+            if ("getTask".equals(frame.getMethodName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Duration percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return Duration.ZERO;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return Duration.ofNanos(sorted[Math.max(0, Math.min(sorted.length - 1, index))]);
+    }
+
+    public record Report(String name, int concurrency, long ok, long rejected, long failed, double throughput,
+                         Duration p50, Duration p90, Duration p99, Duration max,
+                         int peakServerThreads, int peakLiveThreads) {
+
+        @Override
+        public String toString() {
+            return "%-28s c=%-4d ok=%-6d rejected=%-5d failed=%-5d %8.1f req/s  p50=%5dms p90=%5dms p99=%5dms max=%5dms  server threads=%d live threads=%d"
+                    .formatted(name, concurrency, ok, rejected, failed, throughput,
+                            p50.toMillis(), p90.toMillis(), p99.toMillis(), max.toMillis(),
+                            peakServerThreads, peakLiveThreads);
+        }
+
+        public static String table(List<Report> reports) {
+            StringBuilder table = new StringBuilder();
+            reports.forEach(report -> table.append(report).append('\n'));
+            return table.toString();
+        }
+    }
+}